@@ -0,0 +1,113 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent booking creation. Every call tries to book the next free hour of a random item, so threads that
+ * pick the same item race for the same slot and all but one of them have to be turned away as busy.
+ * The trial fails if any two active bookings of an item overlap in the end. With one item every booking
+ * waits for the previous one; with many items throughput should grow with the thread count (-t).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class BookingCreateBenchmark {
+    private static final String OVERLAPS = "select count(*) from (" +
+            "select start_date, max(end_date) over (partition by item_id order by start_date, id" +
+            " rows between unbounded preceding and 1 preceding) as previous_end" +
+            " from booking where status in ('WAITING', 'APPROVED')" +
+            ") t where t.previous_end >= t.start_date";
+    @Param({"1", "64"})
+    private int items;
+    @Param({"false", "true"})
+    private boolean databaseLock;
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private long bookerId;
+    private long[] itemIds;
+    private AtomicLongArray nextSlots;
+    private LocalDateTime firstSlot;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:shareit-booking-bench",
+                        "--spring.datasource.hikari.maximum-pool-size=16",
+                        "--shareit.bookings.lock.database=" + databaseLock,
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN");
+        bookingService = context.getBean(BookingService.class);
+        UserService userService = context.getBean(UserService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+        long ownerId = userService.addUser(new UserDto("owner", "owner@shareit.ru")).getId();
+        bookerId = userService.addUser(new UserDto("booker", "booker@shareit.ru")).getId();
+        itemIds = new long[items];
+        for (int i = 0; i < items; i++) {
+            itemIds[i] = itemService.addItem(ownerId, new ItemDto(0, "Item " + i, "Description of item " + i,
+                    true, null, null)).getId();
+        }
+        nextSlots = new AtomicLongArray(items);
+        firstSlot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        Long overlaps = context.getBean(JdbcTemplate.class).queryForObject(OVERLAPS, Long.class);
+        context.close();
+        if (overlaps == null || overlaps != 0) {
+            throw new IllegalStateException(overlaps + " bookings overlap an earlier booking of the same item");
+        }
+    }
+
+    @Benchmark
+    public boolean book() {
+        int item = ThreadLocalRandom.current().nextInt(items);
+        long slot = nextSlots.get(item);
+        LocalDateTime start = firstSlot.plusHours(slot);
+        try {
+            bookingService.createBooking(bookerId, new BookingDto(itemIds[item], start, start.plusMinutes(30)));
+            return true;
+        } catch (ValidationException e) {
+            return false;
+        } finally {
+            nextSlots.compareAndSet(item, slot, slot + 1);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking list lookups for every state, through BookingServiceImpl.getAllBookings state dispatch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingListBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private String state;
+    private BookingService bookingService;
+    private long ownerId;
+    private long bookerId;
+
+    @Setup
+    public void setUp(SeededServer server) {
+        bookingService = server.getBean(BookingService.class);
+        ownerId = server.getOwnerId();
+        bookerId = server.getBookerId();
+    }
+
+    @Benchmark
+    public List<BookingOutDto> ownerBookings() {
+        return bookingService.getAllItemOwnerBookings(ownerId, state, 0, 10, null);
+    }
+
+    @Benchmark
+    public List<BookingOutDto> bookerBookings() {
+        return bookingService.getAllUserBookings(bookerId, state, 0, 10, null);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.BulkItemDto;
+import ru.practicum.shareit.item.dto.BulkItemResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk item insert throughput with and without JDBC statement batching. A batch size of 1 turns batching off,
+ * which is what IDENTITY ids forced on every insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    private static final String BATCH_SIZE = "hibernate.jdbc.batch_size";
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+    @Param({"100"})
+    private int items;
+    /**
+     * Another database can be given with -p url=..., its driver and credentials as spring.datasource system
+     * properties in -jvmArgs.
+     */
+    @Param({"jdbc:h2:mem:shareit-insert-bench"})
+    private String url;
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private long ownerId;
+    private List<BulkItemDto> batch;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.properties." + BATCH_SIZE + "=" + jdbcBatchSize,
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN");
+        Object batchSize = context.getBean(EntityManagerFactory.class).getProperties().get(BATCH_SIZE);
+        if (!String.valueOf(jdbcBatchSize).equals(String.valueOf(batchSize))) {
+            throw new IllegalStateException(BATCH_SIZE + " is " + batchSize + " instead of " + jdbcBatchSize);
+        }
+        itemService = context.getBean(ItemService.class);
+        ownerId = context.getBean(UserService.class).addUser(new UserDto("owner",
+                UUID.randomUUID() + "@shareit.ru")).getId();
+        batch = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            batch.add(new BulkItemDto(i + 1, new ItemDto(0, "Item " + i, "Description of item " + i, true,
+                    null, null)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BulkItemResult> addItems() {
+        return itemService.addItems(ownerId, batch);
+    }
+}
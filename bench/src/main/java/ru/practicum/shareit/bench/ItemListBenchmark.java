@@ -0,0 +1,44 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemExtDto;
+import ru.practicum.shareit.item.service.ItemService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end owner item page with last/next bookings and comments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemListBenchmark {
+    @Param({"10", "100"})
+    private int size;
+    private ItemService itemService;
+    private long ownerId;
+
+    @Setup
+    public void setUp(SeededServer server) {
+        itemService = server.getBean(ItemService.class);
+        ownerId = server.getOwnerId();
+    }
+
+    @Benchmark
+    public List<ItemExtDto> ownerItems() {
+        return itemService.getAllUserItems(ownerId, 0, size);
+    }
+}
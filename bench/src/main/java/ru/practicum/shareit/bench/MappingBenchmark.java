@@ -0,0 +1,99 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.mapper.MappingBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExtDto;
+import ru.practicum.shareit.item.mapper.MappingItem;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestExtDto;
+import ru.practicum.shareit.request.mapper.MappingRequest;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+    private final MappingBooking mappingBooking = new MappingBooking();
+    private final MappingItem mappingItem = new MappingItem();
+    private final MappingRequest mappingRequest = new MappingRequest();
+    private Booking booking;
+    private BookingDto bookingDto;
+    private Item item;
+    private ItemDto itemDto;
+    private User user;
+    private Request request;
+    private RequestDto requestDto;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(1, "user", "user@shareit.ru", 0);
+        item = new Item(1L, "Drill", "Power drill", true, user, 1L, 0);
+        itemDto = new ItemDto(0, "Drill", "Power drill", true, 1L, null);
+        booking = new Booking(1L, now.plusDays(1), now.plusDays(2), item, user, Status.WAITING, 0);
+        bookingDto = new BookingDto(1, now.plusDays(1), now.plusDays(2));
+        request = new Request(1L, "Need a drill", user, now, 0);
+        requestDto = new RequestDto(null, "Need a drill", null);
+    }
+
+    @Benchmark
+    public Booking mapToBooking() {
+        return mappingBooking.mapToBooking(bookingDto, item, user);
+    }
+
+    @Benchmark
+    public BookingOutDto mapToBookingOutDto() {
+        return mappingBooking.mapToBookingOutDto(booking);
+    }
+
+    @Benchmark
+    public Item mapToItem() {
+        return mappingItem.mapToItem(itemDto);
+    }
+
+    @Benchmark
+    public ItemDto mapToItemDto() {
+        return mappingItem.mapToItemDto(item);
+    }
+
+    @Benchmark
+    public ItemExtDto mapToExtItemDto() {
+        return mappingItem.mapToExtItemDto(item);
+    }
+
+    @Benchmark
+    public Request mapToRequest() {
+        return mappingRequest.mapToRequest(requestDto);
+    }
+
+    @Benchmark
+    public RequestDto mapToRequestDto() {
+        return mappingRequest.mapToRequestDto(request);
+    }
+
+    @Benchmark
+    public RequestExtDto mapToRequestExtDto() {
+        return mappingRequest.mapToRequestExtDto(request);
+    }
+}
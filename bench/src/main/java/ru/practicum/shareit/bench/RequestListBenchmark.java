@@ -0,0 +1,49 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.request.dto.RequestExtDto;
+import ru.practicum.shareit.request.service.RequestService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request lists, which attach answering items through RequestServiceImpl.addItemsIntoRequest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestListBenchmark {
+    @Param({"10", "50"})
+    private int size;
+    private RequestService requestService;
+    private long bookerId;
+
+    @Setup
+    public void setUp(SeededServer server) {
+        requestService = server.getBean(RequestService.class);
+        bookerId = server.getBookerId();
+    }
+
+    @Benchmark
+    public List<RequestExtDto> ownRequests() {
+        return requestService.getAllOwnRequests(bookerId);
+    }
+
+    @Benchmark
+    public List<RequestExtDto> otherUserRequests() {
+        return requestService.getAllOtherUserRequests(bookerId, 0, size, null);
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server context on an in-memory H2 database, seeded through the services the same way the API would.
+ */
+@State(Scope.Benchmark)
+public class SeededServer {
+    public static final int OWNERS = 10;
+    public static final int BOOKERS = 5;
+    public static final int ITEMS_PER_OWNER = 100;
+    public static final int REQUESTS_PER_BOOKER = 40;
+    private ConfigurableApplicationContext context;
+    private final List<Long> ownerIds = new ArrayList<>();
+    private final List<Long> bookerIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:shareit-bench",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN");
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long getOwnerId() {
+        return ownerIds.get(0);
+    }
+
+    public long getBookerId() {
+        return bookerIds.get(0);
+    }
+
+    private void seed() {
+        UserService userService = getBean(UserService.class);
+        ItemService itemService = getBean(ItemService.class);
+        BookingService bookingService = getBean(BookingService.class);
+        RequestService requestService = getBean(RequestService.class);
+        for (int i = 0; i < OWNERS; i++) {
+            ownerIds.add(userService.addUser(new UserDto("owner" + i, "owner" + i + "@shareit.ru")).getId());
+        }
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(userService.addUser(new UserDto("booker" + i, "booker" + i + "@shareit.ru")).getId());
+        }
+        List<Long> requestIds = new ArrayList<>();
+        for (long bookerId : bookerIds) {
+            for (int i = 0; i < REQUESTS_PER_BOOKER; i++) {
+                requestIds.add(requestService.createRequest(bookerId,
+                        new RequestDto(null, "Request " + i + " of " + bookerId, null)).getId());
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int itemNumber = 0;
+        for (long ownerId : ownerIds) {
+            for (int i = 0; i < ITEMS_PER_OWNER; i++, itemNumber++) {
+                Long requestId = itemNumber < requestIds.size() ? requestIds.get(itemNumber) : null;
+                long itemId = itemService.addItem(ownerId, new ItemDto(0, "Item " + itemNumber,
+                        "Description of item " + itemNumber, true, requestId, null)).getId();
+                long bookerId = bookerIds.get(itemNumber % BOOKERS);
+                book(bookingService, ownerId, bookerId, itemId, now.minusDays(10), now.minusDays(9), "true");
+                book(bookingService, ownerId, bookerId, itemId, now.minusDays(1), now.plusDays(1), "true");
+                book(bookingService, ownerId, bookerId, itemId, now.plusDays(5), now.plusDays(6), "true");
+                book(bookingService, ownerId, bookerId, itemId, now.plusDays(8), now.plusDays(9), "false");
+                book(bookingService, ownerId, bookerId, itemId, now.plusDays(10), now.plusDays(11), null);
+                itemService.addComment(bookerId, itemId, new CommentDto(null, "Comment on " + itemNumber,
+                        null, null, null));
+            }
+        }
+    }
+
+    private static void book(BookingService bookingService, long ownerId, long bookerId, long itemId,
+                             LocalDateTime start, LocalDateTime end, String approved) {
+        BookingOutDto booking = bookingService.createBooking(bookerId, new BookingDto(itemId, start, end));
+        if (approved != null) {
+            bookingService.confirmBooking(ownerId, approved, booking.getId());
+        }
+    }
+}
@@ -4,24 +4,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    /**
+     * The owner's item views show the last and next bookings.
+     */
+    private static final Set<String> INVALIDATED_PATHS = Set.of(API_PREFIX, "/items");
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                serverUrl,
+                responseCache,
+                INVALIDATED_PATHS
         );
     }
 
@@ -37,21 +49,35 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllUserBookings(long userId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-                );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getAllUserBookings(long userId, String state, int from, int size, String after) {
+        return get(pageQuery(after), userId, pageParameters(state, from, size, after));
     }
 
-    public ResponseEntity<Object> getAllItemOwnerBookings(long ownerId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+    public ResponseEntity<Object> getAllItemOwnerBookings(long ownerId, String state, int from, int size, String after) {
+        return get("/owner" + pageQuery(after), ownerId, pageParameters(state, from, size, after));
+    }
+
+    public void exportUserBookings(long userId, String format, HttpServletResponse response) {
+        stream("/export?format={format}", userId, Map.of("format", format), response);
+    }
+
+    public void exportItemOwnerBookings(long ownerId, String format, HttpServletResponse response) {
+        stream("/owner/export?format={format}", ownerId, Map.of("format", format), response);
+    }
+
+    private static String pageQuery(String after) {
+        return after == null ? "?state={state}&from={from}&size={size}"
+                : "?state={state}&from={from}&size={size}&after={after}";
+    }
+
+    private static Map<String, Object> pageParameters(String state, int from, int size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
     }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -53,17 +54,35 @@ public class BookingController {
     public ResponseEntity<Object> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                                      @RequestParam(defaultValue = "ALL") String state,
                                                      @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                     @Positive @RequestParam(defaultValue = "10") int size) {
+                                                     @Positive @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(required = false) String after) {
         log.info("Create request by user with id =" + userId + " to find all bookings with state: " + state);
-        return bookingClient.getAllUserBookings(userId, state, from, size);
+        return bookingClient.getAllUserBookings(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
                                                       @RequestParam(defaultValue = "ALL") String state,
                                                       @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                      @Positive @RequestParam(defaultValue = "10") int size) {
+                                                      @Positive @RequestParam(defaultValue = "10") int size,
+                                                      @RequestParam(required = false) String after) {
         log.info("Create request by owner with id =" + ownerId + " to find all bookings with state: " + state);
-        return bookingClient.getAllItemOwnerBookings(ownerId, state, from, size);
+        return bookingClient.getAllItemOwnerBookings(ownerId, state, from, size, after);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/export")
+    public void exportUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                   @RequestParam(defaultValue = "ndjson") String format,
+                                   HttpServletResponse response) {
+        log.info("Create request by user with id = " + userId + " to export all bookings as " + format);
+        bookingClient.exportUserBookings(userId, format, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                    @RequestParam(defaultValue = "ndjson") String format,
+                                    HttpServletResponse response) {
+        log.info("Create request by owner with id = " + ownerId + " to export all bookings as " + format);
+        bookingClient.exportItemOwnerBookings(ownerId, format, response);
+    }
+}
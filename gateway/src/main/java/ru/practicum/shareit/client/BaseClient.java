@@ -1,22 +1,57 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+    private static final ResponseErrorHandler PASS_THROUGH_ERRORS = new DefaultResponseErrorHandler() {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+    };
     protected final RestTemplate rest;
+    @Nullable
+    private final ResponseCache cache;
+    private final Set<String> invalidatedPaths;
+    private final String serverPath;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, "", null, Set.of("/"));
+    }
+
+    /**
+     * The invalidated paths are the server paths whose cached responses a successful write through this client
+     * may change. They are relative to the server url, which may itself have a path.
+     */
+    public BaseClient(RestTemplate rest, String serverUrl, @Nullable ResponseCache cache,
+                      Set<String> invalidatedPaths) {
         this.rest = rest;
+        this.rest.setErrorHandler(PASS_THROUGH_ERRORS);
+        this.cache = cache != null && cache.isEnabled() ? cache : null;
+        this.invalidatedPaths = invalidatedPaths;
+        String path = URI.create(serverUrl).getRawPath();
+        this.serverPath = path == null || path.equals("/") ? "" : path.replaceAll("/+$", "");
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -28,7 +63,7 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, MediaType.APPLICATION_JSON, null);
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -40,7 +75,11 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, MediaType.APPLICATION_JSON, body);
+    }
+
+    protected ResponseEntity<Object> post(String path, long userId, MediaType contentType, byte[] body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, contentType, body);
     }
 
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
@@ -48,7 +87,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, MediaType.APPLICATION_JSON, body);
     }
 
     protected <T> ResponseEntity<Object> patch(String path, T body) {
@@ -64,7 +103,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, MediaType.APPLICATION_JSON, body);
     }
 
     protected ResponseEntity<Object> delete(String path) {
@@ -76,46 +115,101 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
-    }
-
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, MediaType.APPLICATION_JSON, null);
+    }
+
+    /**
+     * Copies the server response to the client while it is being received, for responses too large to buffer.
+     */
+    protected void stream(String path, long userId, Map<String, Object> parameters, HttpServletResponse response) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters);
+        rest.execute(uri, HttpMethod.GET, request -> {
+            request.getHeaders().setAccept(List.of(MediaType.ALL));
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+        }, shareitServerResponse -> {
+            response.setStatus(shareitServerResponse.getRawStatusCode());
+            shareitServerResponse.getHeaders().forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+            StreamUtils.copy(shareitServerResponse.getBody(), response.getOutputStream());
+            return null;
+        });
+    }
+
+    /**
+     * Forwards the request and hands the server response back as raw bytes with its status and headers, so the
+     * body is never parsed into an object tree and serialized again by the gateway.
+     */
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                          MediaType contentType, @Nullable T body) {
+        if (method == HttpMethod.GET && cache != null) {
+            return makeAndSendCachedGet(path, userId, parameters);
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId, contentType));
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        ResponseEntity<byte[]> shareitServerResponse;
+        if (parameters != null) {
+            shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+        } else {
+            shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+        }
+        if (method != HttpMethod.GET && cache != null && shareitServerResponse.getStatusCode().is2xxSuccessful()) {
+            cache.invalidate(invalidatedPaths);
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    /**
+     * The cache key is the path relative to the server url and the query of the expanded URI plus the user id,
+     * as the server answers the same path differently for the owner and for other users.
+     */
+    private ResponseEntity<Object> makeAndSendCachedGet(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        String serverRelativePath = uri.getRawPath().startsWith(serverPath)
+                ? uri.getRawPath().substring(serverPath.length()) : uri.getRawPath();
+        String key = serverRelativePath + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()) + "#" + userId;
+        ResponseCache.Entry cached = cache.get(key);
+        if (cached != null && cache.isFresh(cached)) {
+            return cache.hit(cached);
+        }
+        long generation = cache.generation();
+        HttpHeaders headers = defaultHeaders(userId, MediaType.APPLICATION_JSON);
+        if (cached != null && cached.getEtag() != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+        ResponseEntity<byte[]> shareitServerResponse = rest.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        if (cached != null && shareitServerResponse.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return cache.revalidated(cached);
+        }
+        cache.miss();
+        ResponseEntity<Object> response = prepareGatewayResponse(shareitServerResponse);
+        cache.put(key, shareitServerResponse.getStatusCode(), response.getHeaders(), shareitServerResponse.getBody(), generation);
+        return response;
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, MediaType contentType) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setContentType(contentType);
+        headers.setAccept(contentType.equals(MediaType.APPLICATION_JSON)
+                ? List.of(MediaType.APPLICATION_JSON)
+                : List.of(contentType, MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return ResponseEntity.status(response.getStatusCodeValue()).headers(headers).body(response.getBody());
     }
 }
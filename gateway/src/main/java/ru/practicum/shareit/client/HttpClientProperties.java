@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.time.Duration;
+
+/**
+ * Connection pool and timeouts of the HTTP client shared by all server clients.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    private int maxTotal = 200;
+    private int maxPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    /**
+     * How long a request waits for a free pooled connection before failing.
+     */
+    private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+    /**
+     * Used when the server response does not state its own keep-alive timeout.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of successful GET responses from the server, bounded by the total size of the cached bodies.
+ * Entries are keyed by path, so a successful write through the gateway drops only the responses under the
+ * paths it can change, and a response fetched concurrently with a write is not stored. A gateway instance
+ * thus never serves data older than its own writes. Changes made through other instances are picked up once
+ * the entry is revalidated after the TTL.
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private static final int ENTRY_OVERHEAD = 256;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long generation;
+    private final Counter hits;
+    private final Counter revalidations;
+    private final Counter misses;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry registry) {
+        this.enabled = properties.isEnabled();
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.maxBytes = properties.getMaxBytes().toBytes();
+        this.maxEntryBytes = properties.getMaxEntryBytes().toBytes();
+        this.hits = requests(registry, "hit");
+        this.revalidations = requests(registry, "revalidated");
+        this.misses = requests(registry, "miss");
+        Gauge.builder("shareit.gateway.cache.size", this, cache -> cache.size())
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("shareit.gateway.cache.entries", this, cache -> cache.count())
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Returns the token that {@link #put} checks to skip responses raced by a write.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void put(String key, HttpStatus status, HttpHeaders headers, byte[] body, long generation) {
+        int size = (body == null ? 0 : body.length) + ENTRY_OVERHEAD;
+        if (generation != this.generation || status != HttpStatus.OK || size > maxEntryBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(headers, body, size, System.nanoTime()));
+        if (previous != null) {
+            bytes -= previous.size;
+        }
+        bytes += size;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().size;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Drops the responses under any of the paths: "/items" drops "/items/1" and "/items?from=0", and "/"
+     * drops everything.
+     */
+    public synchronized void invalidate(Collection<String> paths) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (paths.stream().anyMatch(path -> isUnder(entry.getKey(), path))) {
+                bytes -= entry.getValue().size;
+                iterator.remove();
+            }
+        }
+        generation++;
+    }
+
+    public ResponseEntity<Object> hit(Entry entry) {
+        hits.increment();
+        return entry.toResponse();
+    }
+
+    public ResponseEntity<Object> revalidated(Entry entry) {
+        revalidations.increment();
+        entry.storedAt = System.nanoTime();
+        return entry.toResponse();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.storedAt < ttlNanos;
+    }
+
+    private synchronized long size() {
+        return bytes;
+    }
+
+    private synchronized int count() {
+        return entries.size();
+    }
+
+    private static boolean isUnder(String key, String path) {
+        return key.startsWith(path) && (path.endsWith("/") || key.length() == path.length()
+                || "/?#".indexOf(key.charAt(path.length())) >= 0);
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("shareit.gateway.cache.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public static final class Entry {
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final int size;
+        private volatile long storedAt;
+
+        private Entry(HttpHeaders headers, byte[] body, int size, long storedAt) {
+            HttpHeaders cached = new HttpHeaders();
+            cached.putAll(headers);
+            cached.remove(HttpHeaders.DATE);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(cached);
+            this.body = body;
+            this.size = size;
+            this.storedAt = storedAt;
+        }
+
+        public String getEtag() {
+            return headers.getETag();
+        }
+
+        private ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    /**
+     * How long a cached response is served without asking the server; after that it is revalidated by ETag.
+     */
+    private Duration ttl = Duration.ofSeconds(5);
+    private DataSize maxBytes = DataSize.ofMegabytes(16);
+    /**
+     * Larger responses are never cached, so that one big list cannot evict everything else.
+     */
+    private DataSize maxEntryBytes = DataSize.ofKilobytes(256);
+}
@@ -0,0 +1,211 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.BulkItemDto;
+import ru.practicum.shareit.item.dto.BulkItemResult;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validates an NDJSON item upload line by line and forwards the valid lines to the server in chunks, one
+ * request per chunk. Results are written back as they arrive, so neither side holds the whole upload and the
+ * gateway never has to read a response while it is still sending the matching request.
+ */
+@Component
+public class ItemBulkImporter {
+    public static final String NDJSON = "application/x-ndjson";
+    private final ItemClient itemClient;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ItemBulkImporter(ItemClient itemClient, Validator validator, ObjectMapper objectMapper,
+                            @Value("${shareit-server.bulk.chunk-size:1000}") int chunkSize) {
+        this.itemClient = itemClient;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importItems(long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        Chunk chunk = new Chunk(userId, response);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            BulkItemDto bulkItem;
+            try {
+                bulkItem = objectMapper.readValue(line, BulkItemDto.class);
+            } catch (JsonProcessingException e) {
+                bulkItem = null;
+            }
+            String error = bulkItem == null || bulkItem.getItem() == null ? "Line isn't a valid item" : validate(bulkItem);
+            if (error != null) {
+                chunk.reject(new BulkItemResult(lineNumber, HttpStatus.BAD_REQUEST.value(), error));
+            } else {
+                chunk.add(lineNumber, bulkItem);
+            }
+            if (chunk.size() == chunkSize && !chunk.forward()) {
+                return;
+            }
+        }
+        if (chunk.forward()) {
+            chunk.start();
+            response.flushBuffer();
+        }
+    }
+
+    private String validate(BulkItemDto bulkItem) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(bulkItem.getItem());
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<Object> violation = violations.iterator().next();
+        return violation.getPropertyPath() + " " + violation.getMessage();
+    }
+
+    /**
+     * Lines read since the last forward. Rejected lines are held back with the number of valid lines before
+     * them, so they are written between the server's results in input order.
+     */
+    private class Chunk {
+        private final long userId;
+        private final HttpServletResponse response;
+        private final List<Long> lines = new ArrayList<>();
+        private final List<BulkItemResult> rejected = new ArrayList<>();
+        private final List<Integer> rejectedPositions = new ArrayList<>();
+        private int written;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private ServletOutputStream out;
+
+        Chunk(long userId, HttpServletResponse response) {
+            this.userId = userId;
+            this.response = response;
+        }
+
+        int size() {
+            return lines.size() + rejected.size();
+        }
+
+        void reject(BulkItemResult result) {
+            rejected.add(result);
+            rejectedPositions.add(lines.size());
+        }
+
+        void add(long line, BulkItemDto bulkItem) throws IOException {
+            lines.add(line);
+            objectMapper.writeValue(body, bulkItem);
+            body.write('\n');
+        }
+
+        /**
+         * Sends the buffered lines to the server. The server numbers the lines of the chunk from one, so each of
+         * its results gets the line number of the upload back. A failure before anything reached the client is answered with
+         * the server's own status and body; later failures can only be reported per line. Returns false when
+         * the import must stop.
+         */
+        boolean forward() throws IOException {
+            if (lines.isEmpty()) {
+                writeRejected(Integer.MAX_VALUE);
+                if (out != null) {
+                    out.flush();
+                }
+                clear();
+                return true;
+            }
+            ResponseEntity<Object> serverResponse = itemClient.addItems(userId, body.toByteArray());
+            byte[] serverBody = (byte[]) serverResponse.getBody();
+            if (serverResponse.getStatusCode().is2xxSuccessful()) {
+                start();
+                int position = 0;
+                int lineStart = 0;
+                for (int i = 0; serverBody != null && i < serverBody.length && position < lines.size(); i++) {
+                    if (serverBody[i] == '\n') {
+                        writeRejected(position);
+                        JsonNode result = objectMapper.readTree(serverBody, lineStart, i - lineStart);
+                        if (result instanceof ObjectNode) {
+                            ((ObjectNode) result).put("line", lines.get(position));
+                        }
+                        write(result);
+                        position++;
+                        lineStart = i + 1;
+                    }
+                }
+                writeRejected(Integer.MAX_VALUE);
+            } else if (out == null) {
+                response.setStatus(serverResponse.getStatusCodeValue());
+                String contentType = serverResponse.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE);
+                if (contentType != null) {
+                    response.setContentType(contentType);
+                }
+                if (serverBody != null) {
+                    response.getOutputStream().write(serverBody);
+                }
+                return false;
+            } else {
+                for (int position = 0; position < lines.size(); position++) {
+                    writeRejected(position);
+                    write(new BulkItemResult(lines.get(position), serverResponse.getStatusCodeValue(),
+                            "Server rejected the chunk"));
+                }
+                writeRejected(Integer.MAX_VALUE);
+            }
+            out.flush();
+            clear();
+            return true;
+        }
+
+        /**
+         * Writes the rejected lines that come before the valid line at the given position.
+         */
+        private void writeRejected(int position) throws IOException {
+            for (; written < rejected.size() && rejectedPositions.get(written) <= position; written++) {
+                write(rejected.get(written));
+            }
+        }
+
+        private void clear() {
+            lines.clear();
+            rejected.clear();
+            rejectedPositions.clear();
+            written = 0;
+            body.reset();
+        }
+
+        void write(Object result) throws IOException {
+            start();
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+
+        void start() throws IOException {
+            if (out == null) {
+                response.setContentType(NDJSON);
+                out = response.getOutputStream();
+            }
+        }
+    }
+}
@@ -3,26 +3,38 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    /**
+     * Bookings and requests embed the items.
+     */
+    private static final Set<String> INVALIDATED_PATHS = Set.of(API_PREFIX, "/bookings", "/requests");
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                serverUrl,
+                responseCache,
+                INVALIDATED_PATHS
         );
     }
 
@@ -30,6 +42,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> addItems(long userId, byte[] ndjson) {
+        return post("/bulk", userId, MediaType.valueOf(ItemBulkImporter.NDJSON), ndjson);
+    }
+
     public ResponseEntity<Object> updateItem(long userId, Map<String, Object> fields, long itemId) {
         return patch("/" + itemId, userId, fields);
     }
@@ -55,6 +71,17 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
+    public ResponseEntity<Object> getItemComments(long itemId, int from, int size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after == null) {
+            return get("/" + itemId + "/comments?from={from}&size={size}", null, parameters);
+        }
+        parameters.put("after", after);
+        return get("/" + itemId + "/comments?from={from}&size={size}&after={after}", null, parameters);
+    }
+
     public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
@@ -14,9 +14,12 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 import java.util.Map;
 
 @Slf4j
@@ -25,6 +28,7 @@ import java.util.Map;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemClient itemClient;
+    private final ItemBulkImporter itemBulkImporter;
 
     @PostMapping
     public ResponseEntity<Object> addItem(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -33,6 +37,13 @@ public class ItemController {
         return itemClient.addItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/bulk", consumes = ItemBulkImporter.NDJSON)
+    public void addItems(@RequestHeader("X-Sharer-User-Id") long userId, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        log.info("Create request to add items in bulk for user with id = " + userId);
+        itemBulkImporter.importItems(userId, request, response);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @RequestBody Map<String, Object> fields,
@@ -64,6 +75,15 @@ public class ItemController {
         return itemClient.findItems(text, from, size);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getItemComments(@PathVariable long itemId,
+                                                  @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                  @Positive @RequestParam(defaultValue = "10") int size,
+                                                  @RequestParam(required = false) String after) {
+        log.info("Create request to find comments of item with id = " + itemId);
+        return itemClient.getItemComments(itemId, from, size, after);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@RequestHeader ("X-Sharer-User-Id") long userId,
                                              @PathVariable long itemId,
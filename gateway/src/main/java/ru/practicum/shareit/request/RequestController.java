@@ -40,8 +40,9 @@ public class RequestController {
     @GetMapping("/all")
     public ResponseEntity<Object> getAllOtherUserRequests(@RequestHeader("X-Sharer-User-Id") long userId,
                                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                       @Positive @RequestParam(defaultValue = "10") int size) {
-        return requestClient.getAllOtherUserRequests(userId, from, size);
+                                                       @Positive @RequestParam(defaultValue = "10") int size,
+                                                       @RequestParam(required = false) String after) {
+        return requestClient.getAllOtherUserRequests(userId, from, size, after);
     }
 
     @GetMapping("/{requestId}")
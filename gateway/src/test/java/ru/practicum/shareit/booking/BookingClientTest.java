@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BookingClientTest {
+    private static final String CSV = "id,start,end,status,itemId,itemName,ownerId,bookerId,bookerName\n"
+            + "1,2030-01-01T10:00:00,2030-01-01T11:00:00,WAITING,2,\"Drill, \"\"pro\"\"\nedition\",3,4,booker\n";
+    private MockRestServiceServer server;
+    private BookingClient client;
+
+    @BeforeEach
+    void setUp() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        client = new BookingClient("http://server", new RestTemplateBuilder(customizer),
+                new SimpleClientHttpRequestFactory(), null);
+        server = customizer.getServer();
+    }
+
+    @Test
+    void userExportIsCopiedToResponse() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo("http://server/bookings/export?format=csv"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "4"))
+                .andRespond(withSuccess(CSV, MediaType.parseMediaType("text/csv;charset=UTF-8")).headers(headers));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.exportUserBookings(4, "csv", response);
+
+        server.verify();
+        assertEquals(200, response.getStatus());
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertNull(response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+        assertEquals(CSV, response.getContentAsString());
+    }
+
+    @Test
+    void ownerExportUsesOwnerPath() throws Exception {
+        String ndjson = "{\"id\":1,\"status\":\"WAITING\"}\n{\"id\":2,\"status\":\"APPROVED\"}\n";
+        server.expect(requestTo("http://server/bookings/owner/export?format=ndjson"))
+                .andExpect(header("X-Sharer-User-Id", "3"))
+                .andRespond(withSuccess(ndjson, MediaType.parseMediaType("application/x-ndjson")));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.exportItemOwnerBookings(3, "ndjson", response);
+
+        server.verify();
+        assertEquals("application/x-ndjson", response.getContentType());
+        assertEquals(ndjson, response.getContentAsString());
+    }
+
+    @Test
+    void unknownFormatErrorIsPassedThrough() throws Exception {
+        String error = "{\"error\":\"Unknown export format: xml\"}";
+        server.expect(requestTo("http://server/bookings/export?format=xml"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(error));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.exportUserBookings(4, "xml", response);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(error, response.getContentAsString());
+    }
+
+    @Test
+    void unknownUserErrorIsPassedThrough() {
+        server.expect(requestTo("http://server/bookings/owner/export?format=csv"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.exportItemOwnerBookings(99, "csv", response);
+
+        assertEquals(404, response.getStatus());
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseActions;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private static final String SERVER_URL = "http://server/api";
+    private static final String ITEM_URL = SERVER_URL + "/items/1";
+    private static final String ITEM = "{\"id\":1,\"name\":\"Drill\"}";
+    private final MockServerRestTemplateCustomizer itemServer = new MockServerRestTemplateCustomizer();
+    private final MockServerRestTemplateCustomizer userServer = new MockServerRestTemplateCustomizer();
+    private ResponseCache cache;
+    private ItemClient itemClient;
+    private UserClient userClient;
+
+    @Test
+    void freshResponseIsServedFromCache() {
+        createClients(Duration.ofMinutes(1));
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> first = itemClient.getItemById(1, 1);
+        ResponseEntity<Object> second = itemClient.getItemById(1, 1);
+
+        server().verify();
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertArrayEquals((byte[]) first.getBody(), (byte[]) second.getBody());
+    }
+
+    @Test
+    void staleResponseIsRevalidatedByEtag() {
+        createClients(Duration.ZERO);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"1\"");
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON).headers(headers));
+        expectItem().andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(headers));
+
+        itemClient.getItemById(1, 1);
+        ResponseEntity<Object> revalidated = itemClient.getItemById(1, 1);
+
+        server().verify();
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals("\"1\"", revalidated.getHeaders().getETag());
+        assertEquals(ITEM, new String((byte[]) revalidated.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void postUnderServerPathInvalidates() {
+        createClients(Duration.ofMinutes(1));
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        server().expect(requestTo(SERVER_URL + "/items"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+
+        itemClient.getItemById(1, 1);
+        itemClient.addItem(1, new ItemDto(0, "Saw", "Hand saw", true, null, null));
+        itemClient.getItemById(1, 1);
+
+        server().verify();
+    }
+
+    @Test
+    void patchUnderServerPathInvalidates() {
+        createClients(Duration.ofMinutes(1));
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        server().expect(requestTo(ITEM_URL))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+
+        itemClient.getItemById(1, 1);
+        itemClient.updateItem(1, Map.of("name", "Saw"), 1);
+        itemClient.getItemById(1, 1);
+
+        server().verify();
+    }
+
+    @Test
+    void deleteThroughOtherClientInvalidates() {
+        createClients(Duration.ofMinutes(1));
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        userServer.getServer().expect(requestTo(SERVER_URL + "/users/1"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+
+        itemClient.getItemById(1, 1);
+        userClient.deleteUser(1);
+        itemClient.getItemById(1, 1);
+
+        server().verify();
+        userServer.getServer().verify();
+    }
+
+    @Test
+    void failedWriteKeepsCache() {
+        createClients(Duration.ofMinutes(1));
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        server().expect(requestTo(ITEM_URL))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withStatus(HttpStatus.FORBIDDEN));
+
+        itemClient.getItemById(1, 1);
+        itemClient.updateItem(2, Map.of("name", "Saw"), 1);
+        itemClient.getItemById(1, 1);
+
+        server().verify();
+    }
+
+    @Test
+    void responseRacedByWriteIsNotCached() {
+        createClients(Duration.ofMinutes(1));
+        expectItem().andRespond(request -> {
+            cache.invalidate(Set.of("/items"));
+            return withSuccess(ITEM, MediaType.APPLICATION_JSON).createResponse(request);
+        });
+        expectItem().andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+
+        itemClient.getItemById(1, 1);
+        itemClient.getItemById(1, 1);
+
+        server().verify();
+    }
+
+    private void createClients(Duration ttl) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(ttl);
+        cache = new ResponseCache(properties, new SimpleMeterRegistry());
+        itemClient = new ItemClient(SERVER_URL, new RestTemplateBuilder(itemServer),
+                new SimpleClientHttpRequestFactory(), cache);
+        userClient = new UserClient(SERVER_URL, new RestTemplateBuilder(userServer),
+                new SimpleClientHttpRequestFactory(), cache);
+    }
+
+    private MockRestServiceServer server() {
+        return itemServer.getServer();
+    }
+
+    private ResponseActions expectItem() {
+        return server().expect(requestTo(ITEM_URL)).andExpect(method(HttpMethod.GET));
+    }
+}
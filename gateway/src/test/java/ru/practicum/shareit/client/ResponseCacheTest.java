@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheTest {
+    private static final byte[] BODY = new byte[44];
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxBytes(DataSize.ofBytes(1000));
+        properties.setMaxEntryBytes(DataSize.ofBytes(500));
+        cache = new ResponseCache(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void invalidationDropsOnlyPathsUnderPrefix() {
+        put("/items/1#1");
+        put("/items?from=0#1");
+        put("/items#1");
+        put("/itemsearch#1");
+
+        cache.invalidate(List.of("/items"));
+
+        assertNull(cache.get("/items/1#1"));
+        assertNull(cache.get("/items?from=0#1"));
+        assertNull(cache.get("/items#1"));
+        assertNotNull(cache.get("/itemsearch#1"));
+    }
+
+    @Test
+    void rootInvalidationDropsEverything() {
+        put("/items/1#1");
+        put("/users/1#null");
+
+        cache.invalidate(List.of("/"));
+
+        assertNull(cache.get("/items/1#1"));
+        assertNull(cache.get("/users/1#null"));
+    }
+
+    @Test
+    void responseFetchedBeforeWriteIsNotStored() {
+        long generation = cache.generation();
+        cache.invalidate(List.of("/bookings"));
+
+        cache.put("/items/1#1", HttpStatus.OK, new HttpHeaders(), BODY, generation);
+
+        assertNull(cache.get("/items/1#1"));
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvictedOverMaxBytes() {
+        put("/items/1#1");
+        put("/items/2#1");
+        put("/items/3#1");
+        cache.get("/items/1#1");
+
+        put("/items/4#1");
+
+        assertNotNull(cache.get("/items/1#1"));
+        assertNull(cache.get("/items/2#1"));
+        assertNotNull(cache.get("/items/4#1"));
+    }
+
+    @Test
+    void largeAndUnsuccessfulResponsesAreNotStored() {
+        cache.put("/items#1", HttpStatus.OK, new HttpHeaders(), new byte[500], cache.generation());
+        cache.put("/items/1#1", HttpStatus.NOT_FOUND, new HttpHeaders(), BODY, cache.generation());
+
+        assertNull(cache.get("/items#1"));
+        assertNull(cache.get("/items/1#1"));
+    }
+
+    private void put(String key) {
+        cache.put(key, HttpStatus.OK, new HttpHeaders(), BODY, cache.generation());
+    }
+}
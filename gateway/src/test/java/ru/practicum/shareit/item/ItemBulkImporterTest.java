@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemBulkImporterTest {
+    private static final long USER_ID = 1;
+    private static final String DRILL = "{\"item\": {\"name\": \"Drill\", \"description\": \"Cordless\", \"available\": true}}";
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private final List<List<JsonNode>> chunks = new ArrayList<>();
+    private ItemClient itemClient;
+    private ItemBulkImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        itemClient = mock(ItemClient.class);
+        when(itemClient.addItems(eq(USER_ID), any())).thenAnswer(invocation -> addItems(invocation.getArgument(1)));
+        importer = new ItemBulkImporter(itemClient, validatorFactory.getValidator(), objectMapper, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void malformedLineIsRejected() throws Exception {
+        List<JsonNode> results = importItems("{\"item\": ", "[1, 2]");
+
+        assertEquals(List.of(1L, 2L), lines(results));
+        assertEquals(List.of(400, 400), statuses(results));
+        verify(itemClient, never()).addItems(eq(USER_ID), any());
+    }
+
+    @Test
+    void invalidItemIsRejected() throws Exception {
+        List<JsonNode> results = importItems("{\"item\": {\"name\": \"Drill\", \"available\": true}}");
+
+        assertEquals(400, results.get(0).get("status").asInt());
+        assertEquals("description must not be blank", results.get(0).get("error").asText());
+    }
+
+    @Test
+    void validLinesAreForwardedInChunks() throws Exception {
+        List<JsonNode> results = importItems(DRILL, DRILL, DRILL, DRILL, DRILL);
+
+        assertEquals(List.of(2, 2, 1), chunks.stream().map(List::size).collect(Collectors.toList()));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), lines(results));
+        assertEquals(List.of(200, 200, 200, 200, 200), statuses(results));
+    }
+
+    @Test
+    void rejectedLinesKeepInputOrder() throws Exception {
+        List<JsonNode> results = importItems(DRILL, "garbage", DRILL, "", "{\"item\": {\"name\": \"Saw\"}}", DRILL,
+                "garbage", "garbage");
+
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L, 7L, 8L), lines(results));
+        assertEquals(List.of(200, 400, 200, 400, 200, 400, 400), statuses(results));
+        assertEquals(List.of(1, 1, 1), chunks.stream().map(List::size).collect(Collectors.toList()));
+    }
+
+    @Test
+    void lineFieldOfUploadIsIgnored() throws Exception {
+        List<JsonNode> results = importItems("garbage", "{\"line\": 1, \"item\": {\"name\": \"Drill\"," +
+                " \"description\": \"Cordless\", \"available\": true}}");
+
+        assertEquals(List.of(1L, 2L), lines(results));
+        assertFalse(chunks.get(0).get(0).has("line"));
+    }
+
+    @Test
+    void firstChunkFailureIsAnsweredWithServerStatus() throws Exception {
+        when(itemClient.addItems(eq(USER_ID), any())).thenReturn(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("{\"error\": \"User with id = 1 doesn't exist\"}".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        importer.importItems(USER_ID, request(DRILL), response);
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    void laterChunkFailureIsReportedPerLine() throws Exception {
+        when(itemClient.addItems(eq(USER_ID), any()))
+                .thenAnswer(invocation -> addItems(invocation.getArgument(1)))
+                .thenReturn(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        List<JsonNode> results = importItems(DRILL, DRILL, "garbage", DRILL);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), lines(results));
+        assertEquals(List.of(200, 200, 400, 503), statuses(results));
+    }
+
+    /**
+     * Answers like the server: one result per line, numbered within the chunk.
+     */
+    private ResponseEntity<Object> addItems(byte[] ndjson) throws Exception {
+        List<JsonNode> chunk = new ArrayList<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (String line : new String(ndjson, StandardCharsets.UTF_8).split("\n")) {
+            JsonNode item = objectMapper.readTree(line);
+            chunk.add(item);
+            body.write(("{\"line\":" + chunk.size() + ",\"status\":200,\"item\":" + item.get("item") + "}\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        chunks.add(chunk);
+        return ResponseEntity.ok(body.toByteArray());
+    }
+
+    private List<JsonNode> importItems(String... lines) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        importer.importItems(USER_ID, request(lines), response);
+        assertEquals(200, response.getStatus());
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : response.getContentAsString().split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private static MockHttpServletRequest request(String... lines) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items/bulk");
+        request.setContentType(ItemBulkImporter.NDJSON);
+        request.setContent(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static List<Long> lines(List<JsonNode> results) {
+        return results.stream()
+                .map(result -> result.get("line").asLong())
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> statuses(List<JsonNode> results) {
+        return results.stream()
+                .map(result -> result.get("status").asInt())
+                .collect(Collectors.toList());
+    }
+}
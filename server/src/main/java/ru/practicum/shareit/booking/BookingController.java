@@ -12,9 +12,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.EntityTag;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -24,6 +29,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
 
     @PostMapping
     public BookingOutDto createBooking(@RequestBody BookingDto bookingDto,
@@ -41,26 +47,67 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public BookingOutDto getBookingById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long bookingId) {
+    public BookingOutDto getBookingById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long bookingId,
+                                        WebRequest request) {
         log.info("Create request by user with id = " + userId + " to find booking with id = " + bookingId);
-        return bookingService.getBookingById(userId, bookingId);
+        BookingOutDto booking = bookingService.getBookingById(userId, bookingId);
+        if (tag(new EntityTag(), booking).checkNotModified(request)) {
+            return null;
+        }
+        return booking;
     }
 
     @GetMapping
     public List<BookingOutDto> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                                   @RequestParam(defaultValue = "ALL") String state,
                                                   @RequestParam(defaultValue = "0") int from,
-                                                  @RequestParam(defaultValue = "10") int size) {
+                                                  @RequestParam(defaultValue = "10") int size,
+                                                  @RequestParam(required = false) String after,
+                                                  WebRequest request) {
         log.info("Create request by user with id =" + userId + " to find all bookings with state: " + state);
-        return bookingService.getAllUserBookings(userId, state, from, size);
+        return notModifiedOrBody(bookingService.getAllUserBookings(userId, state, from, size, after), request);
     }
 
     @GetMapping("/owner")
     public List<BookingOutDto> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
                                                    @RequestParam(defaultValue = "ALL") String state,
                                                    @RequestParam(defaultValue = "0") int from,
-                                                   @RequestParam(defaultValue = "10") int size) {
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(required = false) String after,
+                                                   WebRequest request) {
         log.info("Create request by owner with id =" + ownerId + " to find all bookings with state: " + state);
-        return bookingService.getAllItemOwnerBookings(ownerId, state, from, size);
+        return notModifiedOrBody(bookingService.getAllItemOwnerBookings(ownerId, state, from, size, after), request);
+    }
+
+    @GetMapping("/export")
+    public void exportUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                   @RequestParam(defaultValue = BookingExporter.NDJSON) String format,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Create request by user with id = " + userId + " to export all bookings as " + format);
+        bookingExporter.exportBookings(userId, false, format, request, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                    @RequestParam(defaultValue = BookingExporter.NDJSON) String format,
+                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Create request by owner with id = " + ownerId + " to export all bookings as " + format);
+        bookingExporter.exportBookings(ownerId, true, format, request, response);
+    }
+
+    private static List<BookingOutDto> notModifiedOrBody(List<BookingOutDto> bookings, WebRequest request) {
+        EntityTag tag = new EntityTag().with(bookings.size());
+        bookings.forEach(booking -> tag(tag, booking));
+        if (tag.checkNotModified(request)) {
+            return null;
+        }
+        return bookings;
+    }
+
+    private static EntityTag tag(EntityTag tag, BookingOutDto booking) {
+        return tag.with(booking.getId()).with(booking.getVersion())
+                .with(booking.getItem().getId()).with(booking.getItem().getVersion())
+                .with(booking.getItem().getOwner().getVersion())
+                .with(booking.getBooker().getId()).with(booking.getBooker().getVersion());
     }
 }
\ No newline at end of file
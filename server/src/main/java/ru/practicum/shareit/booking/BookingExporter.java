@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.mapper.MappingBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.repository.UserRepository;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole booking history of a booker or an owner as NDJSON or CSV while it is read from a forward-only
+ * result set, so memory use doesn't depend on the number of bookings.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingExporter {
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,ownerId,bookerId,bookerName\n";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final MappingBooking mappingBooking;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportBookings(long userId, boolean isOwner, String format, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        boolean isCsv = CSV.equalsIgnoreCase(format);
+        if (!isCsv && !NDJSON.equalsIgnoreCase(format)) {
+            throw new ValidationException("Unknown export format: " + format);
+        }
+        userRepository.findById(userId)
+                .orElseThrow(() -> new ObjectNotFoundException("User with id = " + userId + " doesn't exist"));
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        response.setContentType(isCsv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = response.getWriter();
+        if (isCsv) {
+            writer.write(CSV_HEADER);
+        }
+        try (Stream<BookingView> bookings = isOwner ? bookingRepository.streamAllByItemOwnerId(userId)
+                : bookingRepository.streamAllByBookerId(userId)) {
+            Iterator<BookingView> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                BookingView booking = iterator.next();
+                if (isCsv) {
+                    writeCsv(writer, booking);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(mappingBooking.mapToBookingOutDto(booking)));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Writer writer, BookingView booking) throws IOException {
+        writer.write(booking.getId() + "," + DATE_FORMAT.format(booking.getStart()) + ","
+                + DATE_FORMAT.format(booking.getEnd()) + "," + booking.getStatus() + "," + booking.getItemId() + ","
+                + csvField(booking.getItemName()) + "," + booking.getOwnerId() + "," + booking.getBookerId() + ","
+                + csvField(booking.getBookerName()) + "\n");
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.booking.model.Status;
@@ -20,4 +21,6 @@ public class BookingOutDto {
     private Item item;
     private User booker;
     private Status status;
+    @JsonIgnore
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Status;
+
+public interface BookingStatusCount {
+    Status getStatus();
+
+    long getTotal();
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Status;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of a booking list page: the booking, its item with the owner and the booker, selected column by column
+ * so that no entity is loaded into the persistence context.
+ */
+@Data
+@AllArgsConstructor
+public class BookingView {
+    private long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Status status;
+    private long version;
+    private long itemId;
+    private String itemName;
+    private String itemDescription;
+    private Boolean itemAvailable;
+    private Long itemRequestId;
+    private long itemVersion;
+    private long ownerId;
+    private String ownerName;
+    private String ownerEmail;
+    private long ownerVersion;
+    private long bookerId;
+    private String bookerName;
+    private String bookerEmail;
+    private long bookerVersion;
+}
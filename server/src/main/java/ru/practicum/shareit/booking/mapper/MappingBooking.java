@@ -1,40 +1,52 @@
 package ru.practicum.shareit.booking.mapper;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
-import ru.practicum.shareit.item.mapper.MappingItem;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 
 @Service
-@RequiredArgsConstructor
 public class MappingBooking {
-    private final UserService userService;
-    private final MappingItem mappingItem;
-    private final ItemService itemService;
-
-    public Booking mapToBooking(BookingDto bookingDto, long bookerId) {
-        Item item = mappingItem.mapToItem(itemService.getItemById(bookerId, bookingDto.getItemId()));
-        User user = userService.findUserById(bookerId);
+    public Booking mapToBooking(BookingDto bookingDto, Item item, User booker) {
         LocalDateTime start = bookingDto.getStart();
         LocalDateTime end = bookingDto.getEnd();
-        return new Booking(null, start, end, item, user, Status.WAITING);
+        return new Booking(null, start, end, item, booker, Status.WAITING, 0);
     }
 
     public BookingOutDto mapToBookingOutDto(Booking booking) {
         long id = booking.getId();
-        Item item = booking.getItem();
-        User user = booking.getBooker();
+        Item item = copyItem(booking.getItem());
+        User user = copyUser(booking.getBooker());
         LocalDateTime start = booking.getStart();
         LocalDateTime end = booking.getEnd();
         Status status = booking.getStatus();
-        return new BookingOutDto(id, start, end, item, user, status);
+        return new BookingOutDto(id, start, end, item, user, status, booking.getVersion());
+    }
+
+    public BookingOutDto mapToBookingOutDto(BookingView view) {
+        User owner = new User(view.getOwnerId(), view.getOwnerName(), view.getOwnerEmail(), view.getOwnerVersion());
+        Item item = new Item(view.getItemId(), view.getItemName(), view.getItemDescription(), view.getItemAvailable(),
+                owner, view.getItemRequestId(), view.getItemVersion());
+        User booker = new User(view.getBookerId(), view.getBookerName(), view.getBookerEmail(),
+                view.getBookerVersion());
+        return new BookingOutDto(view.getId(), view.getStart(), view.getEnd(), item, booker, view.getStatus(),
+                view.getVersion());
+    }
+
+    /**
+     * The response outlives the transaction, so it gets plain copies instead of the lazy associations themselves.
+     */
+    private static Item copyItem(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                copyUser(item.getOwner()), item.getRequestId(), item.getVersion());
+    }
+
+    private static User copyUser(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail(), user.getVersion());
     }
-}
\ No newline at end of file
+}
@@ -1,38 +1,132 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingStatusCount;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(long ownerId, Pageable page);
+    String SELECT_VIEW = "select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status," +
+            " b.version, i.id, i.name, i.description, i.available, i.requestId, i.version," +
+            " o.id, o.name, o.email, o.version, u.id, u.name, u.email, u.version)" +
+            " from Booking as b join b.item as i join i.owner as o join b.booker as u";
+    String BY_BOOKER = SELECT_VIEW + " where u.id = ?1";
+    String BY_ITEM_OWNER = SELECT_VIEW + " where o.id = ?1";
+    String BEFORE_CURSOR = " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))";
+    String ORDER_BY_START_DESC = " order by b.start desc, b.id desc";
+
+    @Query(SELECT_VIEW + " where b.id = ?1")
+    Optional<BookingView> findViewById(long bookingId);
+
+    /**
+     * Moves a booking of one of the owner's items from one status to another. Returns 0 if there is no such
+     * booking, it isn't the owner's, or it is no longer in the expected status.
+     */
+    @Modifying
+    @Query("update Booking as b set b.status = ?4, b.version = b.version + 1 where b.id = ?1 and b.status = ?3" +
+            " and b.item.id in (select i.id from Item as i where i.owner.id = ?2)")
+    int updateStatus(long bookingId, long ownerId, Status from, Status to);
+
+    @Query(BY_BOOKER + ORDER_BY_START_DESC)
+    List<BookingView> findPageByBookerId(long bookerId, Pageable page);
+
+    @Query(BY_BOOKER + BEFORE_CURSOR + ORDER_BY_START_DESC)
+    List<BookingView> findPageByBookerId(long bookerId, LocalDateTime cursorStart, long cursorId, Pageable page);
+
+    @Query(BY_BOOKER + " and b.start > ?2" + ORDER_BY_START_DESC)
+    List<BookingView> findFuturePageByBookerId(long bookerId, LocalDateTime now, Pageable page);
+
+    @Query(BY_BOOKER + BEFORE_CURSOR + " and b.start > ?4" + ORDER_BY_START_DESC)
+    List<BookingView> findFuturePageByBookerId(long bookerId, LocalDateTime cursorStart, long cursorId,
+                                           LocalDateTime now, Pageable page);
+
+    @Query(BY_BOOKER + " and b.start < ?2 and b.end > ?2" + ORDER_BY_START_DESC)
+    List<BookingView> findCurrentPageByBookerId(long bookerId, LocalDateTime now, Pageable page);
+
+    @Query(BY_BOOKER + BEFORE_CURSOR + " and b.start < ?4 and b.end > ?4" + ORDER_BY_START_DESC)
+    List<BookingView> findCurrentPageByBookerId(long bookerId, LocalDateTime cursorStart, long cursorId,
+                                            LocalDateTime now, Pageable page);
+
+    @Query(BY_BOOKER + " and b.end < ?2" + ORDER_BY_START_DESC)
+    List<BookingView> findPastPageByBookerId(long bookerId, LocalDateTime now, Pageable page);
+
+    @Query(BY_BOOKER + BEFORE_CURSOR + " and b.end < ?4" + ORDER_BY_START_DESC)
+    List<BookingView> findPastPageByBookerId(long bookerId, LocalDateTime cursorStart, long cursorId,
+                                         LocalDateTime now, Pageable page);
 
-    List<Booking> findAllByBookerIdAndStartIsAfter(long ownerId, LocalDateTime start, Pageable page);
+    @Query(BY_BOOKER + " and b.status = ?2" + ORDER_BY_START_DESC)
+    List<BookingView> findPageByBookerIdAndStatus(long bookerId, Status status, Pageable page);
 
-    List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfter(long ownerId, LocalDateTime start,
-                                                                 LocalDateTime end, Pageable page);
+    @Query(BY_BOOKER + BEFORE_CURSOR + " and b.status = ?4" + ORDER_BY_START_DESC)
+    List<BookingView> findPageByBookerIdAndStatus(long bookerId, LocalDateTime cursorStart, long cursorId,
+                                              Status status, Pageable page);
 
-    List<Booking> findAllByBookerIdAndEndIsBefore(long ownerId, LocalDateTime end, Pageable page);
+    @Query(BY_ITEM_OWNER + ORDER_BY_START_DESC)
+    List<BookingView> findPageByItemOwnerId(long ownerId, Pageable page);
 
-    List<Booking> findAllByBookerIdAndStatus(long ownerId, Status status, Pageable page);
+    @Query(BY_ITEM_OWNER + BEFORE_CURSOR + ORDER_BY_START_DESC)
+    List<BookingView> findPageByItemOwnerId(long ownerId, LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    List<Booking> findAllByItemOwnerId(long ownerId, Pageable page);
+    @Query(BY_ITEM_OWNER + " and b.start > ?2" + ORDER_BY_START_DESC)
+    List<BookingView> findFuturePageByItemOwnerId(long ownerId, LocalDateTime now, Pageable page);
 
-    List<Booking> findAllByItemOwnerIdAndStartIsAfter(long ownerId, LocalDateTime start, Pageable page);
+    @Query(BY_ITEM_OWNER + BEFORE_CURSOR + " and b.start > ?4" + ORDER_BY_START_DESC)
+    List<BookingView> findFuturePageByItemOwnerId(long ownerId, LocalDateTime cursorStart, long cursorId,
+                                              LocalDateTime now, Pageable page);
 
-    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(long ownerId, LocalDateTime start,
-                                                                    LocalDateTime end, Pageable page);
+    @Query(BY_ITEM_OWNER + " and b.start < ?2 and b.end > ?2" + ORDER_BY_START_DESC)
+    List<BookingView> findCurrentPageByItemOwnerId(long ownerId, LocalDateTime now, Pageable page);
 
-    List<Booking> findAllByItemOwnerIdAndEndIsBefore(long ownerId, LocalDateTime end, Pageable page);
+    @Query(BY_ITEM_OWNER + BEFORE_CURSOR + " and b.start < ?4 and b.end > ?4" + ORDER_BY_START_DESC)
+    List<BookingView> findCurrentPageByItemOwnerId(long ownerId, LocalDateTime cursorStart, long cursorId,
+                                               LocalDateTime now, Pageable page);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(long ownerId, Status status, Pageable page);
+    @Query(BY_ITEM_OWNER + " and b.end < ?2" + ORDER_BY_START_DESC)
+    List<BookingView> findPastPageByItemOwnerId(long ownerId, LocalDateTime now, Pageable page);
+
+    @Query(BY_ITEM_OWNER + BEFORE_CURSOR + " and b.end < ?4" + ORDER_BY_START_DESC)
+    List<BookingView> findPastPageByItemOwnerId(long ownerId, LocalDateTime cursorStart, long cursorId,
+                                            LocalDateTime now, Pageable page);
+
+    @Query(BY_ITEM_OWNER + " and b.status = ?2" + ORDER_BY_START_DESC)
+    List<BookingView> findPageByItemOwnerIdAndStatus(long ownerId, Status status, Pageable page);
+
+    @Query(BY_ITEM_OWNER + BEFORE_CURSOR + " and b.status = ?4" + ORDER_BY_START_DESC)
+    List<BookingView> findPageByItemOwnerIdAndStatus(long ownerId, LocalDateTime cursorStart, long cursorId,
+                                                 Status status, Pageable page);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(BY_BOOKER + ORDER_BY_START_DESC)
+    Stream<BookingView> streamAllByBookerId(long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(BY_ITEM_OWNER + ORDER_BY_START_DESC)
+    Stream<BookingView> streamAllByItemOwnerId(long ownerId);
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @Query("select b.id from Booking as b where b.booker.id = ?1 and b.item.id = ?2 and b.status = ?3 and b.end < ?4")
+    List<Long> findEndedIds(long bookerId, long itemId, Status status, LocalDateTime now, Pageable page);
 
     BookingShortDto findFirstByItemIdAndStartBeforeOrderByEndDesc(long itemId, LocalDateTime start);
 
@@ -40,7 +134,29 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
                                                                            LocalDateTime start, Status status);
 
-    @Query(value = "select * from booking where ((item_id = ?1)" +
-            " and ((start_date <= ?2 and end_date >= ?2) or (start_date <= ?3 and end_date >= ?3)))", nativeQuery = true)
-    List<Booking> findAllWithCrossingTime(long itemId, LocalDateTime start, LocalDateTime end);
+    @Query(value = "select t.kind as kind, t.id as id, t.item_id as itemId, t.booker_id as bookerId," +
+            " t.start_date as startDate, t.end_date as endDate from (" +
+            "select 'LAST' as kind, b.id, b.item_id, b.booker_id, b.start_date, b.end_date," +
+            " row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn" +
+            " from booking b where b.item_id in (?1) and b.start_date < ?2" +
+            " union all " +
+            "select 'NEXT' as kind, b.id, b.item_id, b.booker_id, b.start_date, b.end_date," +
+            " row_number() over (partition by b.item_id order by b.start_date asc, b.id asc) as rn" +
+            " from booking b where b.item_id in (?1) and b.start_date > ?2 and b.status = 'APPROVED'" +
+            ") t where t.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastAndNextByItemIdIn(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select min(b.start) from Booking as b where b.item.id = ?1 and b.start >= ?2")
+    LocalDateTime findFirstStartFrom(long itemId, LocalDateTime from);
+
+    @Query("select b.status as status, count(b) as total from Booking as b where b.item.id = ?1 group by b.status")
+    List<BookingStatusCount> countByItemIdGroupByStatus(long itemId);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShortDto(b.id, b.booker.id, b.start, b.end)" +
+            " from Booking as b where b.item.id = ?1 and b.status in ?2 and b.end >= ?3")
+    List<BookingShortDto> findAllIntervalsByItemId(long itemId, Collection<Status> statuses, LocalDateTime endFrom);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking as b" +
+            " where b.item.id = ?1 and b.status in ?2 and b.start <= ?4 and b.end >= ?3")
+    boolean existsOverlapping(long itemId, Collection<Status> statuses, LocalDateTime start, LocalDateTime end);
 }
\ No newline at end of file
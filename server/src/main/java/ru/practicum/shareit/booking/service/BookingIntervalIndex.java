@@ -0,0 +1,167 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.TransactionUtils;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * In-memory index of WAITING and APPROVED bookings per item, used to detect overlapping time slots
+ * without a round trip to the database. Items are loaded lazily on first access and evicted when the index
+ * holds too many of them.
+ *
+ * <p>An item's entry is put in place before it is loaded and is loaded under the entry's own monitor, which
+ * committed bookings and rejections take as well. A change that commits while the item is being loaded is
+ * therefore applied to the loaded entry rather than lost, and a change that commits before the entry exists
+ * is seen by the load.
+ *
+ * <p>Intervals that ended before an entry's horizon are dropped, and the horizon moves forward as time goes
+ * by. Slots that start before the horizon are checked against the database.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    public static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemIntervals> items;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.bookings.interval-index.max-items:100000}") long maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .build();
+    }
+
+    public boolean isBusy(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals itemIntervals = items.get(itemId, id -> new ItemIntervals());
+        synchronized (itemIntervals) {
+            LocalDateTime now = LocalDateTime.now();
+            if (itemIntervals.horizon == null) {
+                for (BookingShortDto booking : bookingRepository.findAllIntervalsByItemId(itemId, ACTIVE_STATUSES,
+                        now)) {
+                    itemIntervals.add(new Interval(booking.getId(), booking.getStart(), booking.getEnd()));
+                }
+                itemIntervals.prune(now);
+            } else if (itemIntervals.horizon.plus(PRUNE_INTERVAL).isBefore(now)) {
+                itemIntervals.prune(now);
+            }
+            if (start.isBefore(itemIntervals.horizon)) {
+                return bookingRepository.existsOverlapping(itemId, ACTIVE_STATUSES, start, end);
+            }
+            return itemIntervals.overlaps(start, end);
+        }
+    }
+
+    public void add(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        TransactionUtils.afterCommit(() -> {
+            ItemIntervals itemIntervals = items.getIfPresent(itemId);
+            if (itemIntervals != null) {
+                synchronized (itemIntervals) {
+                    itemIntervals.add(new Interval(bookingId, start, end));
+                }
+            }
+        });
+    }
+
+    public void remove(long itemId, long bookingId) {
+        TransactionUtils.afterCommit(() -> {
+            ItemIntervals itemIntervals = items.getIfPresent(itemId);
+            if (itemIntervals != null) {
+                synchronized (itemIntervals) {
+                    itemIntervals.remove(bookingId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops every entry. A check that is loading an entry right now keeps using it for that one call, which
+     * is no different from the check having run before the user was deleted; later checks load afresh.
+     */
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        log.debug("Bookings of user with id = " + event.getUserId() + " were deleted, resetting interval index");
+        items.invalidateAll();
+    }
+
+    private static class Interval {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Interval(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Intervals of one item sorted by start. A booking is only created for a free slot, so the active
+     * bookings of an item never overlap each other and their ends are sorted too. An interval overlapping
+     * [start, end] is then either the last one starting no later than start or the first one starting after
+     * it, and a lookup costs two tree searches. Guarded by its own monitor; the horizon stays null until the
+     * item is loaded.
+     */
+    private static class ItemIntervals {
+        private final NavigableSet<Interval> byStart = new TreeSet<>(Comparator
+                .comparing((Interval interval) -> interval.start)
+                .thenComparingLong(interval -> interval.bookingId));
+        private final Map<Long, Interval> byId = new HashMap<>();
+        private LocalDateTime horizon;
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Interval key = new Interval(Long.MAX_VALUE, start, start);
+            Interval before = byStart.floor(key);
+            if (before != null && !before.end.isBefore(start)) {
+                return true;
+            }
+            Interval after = byStart.higher(key);
+            return after != null && !after.start.isAfter(end);
+        }
+
+        void add(Interval interval) {
+            if (byId.containsKey(interval.bookingId)
+                    || (horizon != null && interval.end.isBefore(horizon))) {
+                return;
+            }
+            byId.put(interval.bookingId, interval);
+            byStart.add(interval);
+        }
+
+        void remove(long bookingId) {
+            Interval interval = byId.remove(bookingId);
+            if (interval != null) {
+                byStart.remove(interval);
+            }
+        }
+
+        /**
+         * Moves the horizon to the given time, dropping the intervals that ended before it. Ends are sorted
+         * like starts, so those are the first intervals.
+         */
+        void prune(LocalDateTime newHorizon) {
+            horizon = newHorizon;
+            while (!byStart.isEmpty() && byStart.first().end.isBefore(newHorizon)) {
+                byId.remove(byStart.pollFirst().bookingId);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking of the same item, so the overlap check and the insert of one booking can't interleave
+ * with another's. Items share a fixed set of lock stripes, so bookings of different items rarely wait for
+ * each other. A stripe is taken before the booking's transaction starts and released after it completes, which
+ * covers the after-commit update of the interval index as well, so threads waiting for a stripe don't hold a
+ * pooled connection.
+ *
+ * <p>The stripes only guard one node. With the database lock enabled, the item row is also locked for update
+ * and overlaps are checked in the booking table instead of the node-local interval index.
+ */
+@Component
+public class ItemBookingLocks {
+    private final ReentrantLock[] stripes;
+    private final boolean databaseLock;
+
+    public ItemBookingLocks(@Value("${shareit.bookings.lock.stripes:64}") int stripes,
+                            @Value("${shareit.bookings.lock.database:false}") boolean databaseLock) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.databaseLock = databaseLock;
+    }
+
+    public boolean isDatabaseLock() {
+        return databaseLock;
+    }
+
+    /**
+     * Runs the action holding the item's stripe. The action has to open and complete its own transaction.
+     */
+    public <T> T callLocked(long itemId, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Item " + itemId + " can't be locked inside a transaction");
+        }
+        ReentrantLock stripe = stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+        stripe.lock();
+        try {
+            return action.get();
+        } finally {
+            stripe.unlock();
+        }
+    }
+}
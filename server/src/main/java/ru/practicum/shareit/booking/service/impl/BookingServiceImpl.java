@@ -2,83 +2,84 @@ package ru.practicum.shareit.booking.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.mapper.MappingBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingLocks;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemBookingSummaryStore;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
+import ru.practicum.shareit.sql.SqlMonitored;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@SqlMonitored
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final MappingBooking mappingBooking;
-    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingLocks itemBookingLocks;
+    private final ItemBookingSummaryStore itemBookingSummaryStore;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    @Transactional
     public BookingOutDto createBooking(long bookerId, BookingDto bookingDto) {
-        checkUser(bookerId);
-        long itemId = bookingDto.getItemId();
-        Item itemDto = itemRepository.findById(itemId)
-                .orElseThrow(() -> new ObjectNotFoundException("Iten with id = " + itemId + " doesn't exist"));
-        boolean isOwner = bookerId == itemDto.getOwner().getId();
-        boolean isNotAvailable = !itemDto.getAvailable();
-        if (isOwner) {
-            throw new ObjectNotFoundException("Owner can't book your own things");
-        }
-        if (isNotAvailable) {
-            throw new ValidationException("Item" + itemDto.getName() + " isn't available now");
-        }
-        LocalDateTime start = bookingDto.getStart();
-        LocalDateTime end = bookingDto.getEnd();
-        if (start.isAfter(end) || start.equals(end)) {
-            throw new ValidationException("Dates of start and end are equals");
-        }
-        if (checkIsBusyTime(bookingDto)) {
-            throw new ValidationException("This time is busy");
-        }
-        Booking booking = mappingBooking.mapToBooking(bookingDto, bookerId);
-        return mappingBooking.mapToBookingOutDto(bookingRepository.save(booking));
+        return itemBookingLocks.callLocked(bookingDto.getItemId(), () ->
+                transactionTemplate.execute(status -> addBooking(bookerId, bookingDto)));
     }
 
     @Override
     @Transactional
     public BookingOutDto confirmBooking(long ownerId, String approved, long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Status status;
+        if (approved.equalsIgnoreCase("true")) {
+            status = Status.APPROVED;
+        } else if (approved.equalsIgnoreCase("false")) {
+            status = Status.REJECTED;
+        } else {
+            throw new ValidationException("Unknown approval: " + approved);
+        }
+        boolean isUpdated = bookingRepository.updateStatus(bookingId, ownerId, Status.WAITING, status) == 1;
+        BookingView booking = bookingRepository.findViewById(bookingId)
                 .orElseThrow(() -> new ObjectNotFoundException("Booking with id = " + bookingId + " doesn't exist"));
-        boolean isOwner = ownerId == booking.getItem().getOwner().getId();
-        boolean isNotApprovedBooking = !booking.getStatus().equals(Status.APPROVED);
-        if (isOwner) {
-            if (isNotApprovedBooking) {
-                if (approved.equalsIgnoreCase("true")) {
-                    booking.setStatus(Status.APPROVED);
-                }
-                if (approved.equalsIgnoreCase("false")) {
-                    booking.setStatus(Status.REJECTED);
-                }
-                return mappingBooking.mapToBookingOutDto(bookingRepository.save(booking));
+        if (!isUpdated) {
+            if (ownerId != booking.getOwnerId()) {
+                throw new ObjectNotFoundException("User with id = " + ownerId + " aren't owner of this thing");
             }
             throw new ValidationException("Booking is already confirmed");
         }
-        throw new ObjectNotFoundException("User with id = " + ownerId + " aren't owner of this thing");
+        long itemId = booking.getItemId();
+        if (status == Status.APPROVED) {
+            bookingIntervalIndex.add(itemId, bookingId, booking.getStart(), booking.getEnd());
+        } else {
+            bookingIntervalIndex.remove(itemId, bookingId);
+        }
+        itemBookingSummaryStore.confirmBooking(itemId, new BookingShortDto(bookingId, booking.getBookerId(),
+                booking.getStart(), booking.getEnd()), status);
+        return mappingBooking.mapToBookingOutDto(booking);
     }
 
     @Override
@@ -96,22 +97,54 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingOutDto> getAllUserBookings(long userId, String state, int from, int size) {
+    public List<BookingOutDto> getAllUserBookings(long userId, String state, int from, int size, String after) {
         checkUser(userId);
         boolean isOwner = false;
-        PageRequest page = from > 0 ? PageRequest.of(from / size, size, SORT_BY_START_DESC)
-                : PageRequest.of(0, size, SORT_BY_START_DESC);
-        return toBookingOutDto(getAllBookings(userId, state, isOwner, page));
+        return toBookingOutDto(getAllBookings(userId, state, isOwner, from, size, after));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingOutDto> getAllItemOwnerBookings(long userId, String state, int from, int size) {
+    public List<BookingOutDto> getAllItemOwnerBookings(long userId, String state, int from, int size, String after) {
         checkUser(userId);
         boolean isOwner = true;
-        PageRequest page = from > 0 ? PageRequest.of(from / size, size, SORT_BY_START_DESC)
-                : PageRequest.of(0, size, SORT_BY_START_DESC);
-        return toBookingOutDto(getAllBookings(userId, state, isOwner, page));
+        return toBookingOutDto(getAllBookings(userId, state, isOwner, from, size, after));
+    }
+
+    private BookingOutDto addBooking(long bookerId, BookingDto bookingDto) {
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new ObjectNotFoundException("User with id = " + bookerId + " doesn't exist"));
+        long itemId = bookingDto.getItemId();
+        Item item = (itemBookingLocks.isDatabaseLock() ? itemRepository.findByIdForUpdate(itemId)
+                : itemRepository.findById(itemId))
+                .orElseThrow(() -> new ObjectNotFoundException("Iten with id = " + itemId + " doesn't exist"));
+        boolean isOwner = bookerId == item.getOwner().getId();
+        boolean isNotAvailable = !item.getAvailable();
+        if (isOwner) {
+            throw new ObjectNotFoundException("Owner can't book your own things");
+        }
+        if (isNotAvailable) {
+            throw new ValidationException("Item" + item.getName() + " isn't available now");
+        }
+        LocalDateTime start = bookingDto.getStart();
+        LocalDateTime end = bookingDto.getEnd();
+        if (start.isAfter(end) || start.equals(end)) {
+            throw new ValidationException("Dates of start and end are equals");
+        }
+        if (isBusy(itemId, start, end)) {
+            throw new ValidationException("This time is busy");
+        }
+        Booking booking = bookingRepository.save(mappingBooking.mapToBooking(bookingDto, item, booker));
+        bookingIntervalIndex.add(itemId, booking.getId(), start, end);
+        itemBookingSummaryStore.addBooking(itemId, new BookingShortDto(booking.getId(), bookerId, start, end));
+        return mappingBooking.mapToBookingOutDto(booking);
+    }
+
+    private boolean isBusy(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (itemBookingLocks.isDatabaseLock()) {
+            return bookingRepository.existsOverlapping(itemId, BookingIntervalIndex.ACTIVE_STATUSES, start, end);
+        }
+        return bookingIntervalIndex.isBusy(itemId, start, end);
     }
 
     private void checkUser(long userId) {
@@ -119,45 +152,74 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new ObjectNotFoundException("User with id = " + userId + " doesn't exist"));
     }
 
-    private List<Booking> getAllBookings(long userId, String state, boolean isOwner, PageRequest page) {
+    private List<BookingView> getAllBookings(long userId, String state, boolean isOwner, int from, int size,
+                                         String after) {
+        PageCursor cursor = PageCursor.parse(after, from);
+        Pageable page = new OffsetPageRequest(from, size);
+        LocalDateTime now = LocalDateTime.now();
+        if (cursor != null) {
+            return getBookingsAfter(userId, state, isOwner, cursor, now, page);
+        }
+        switch (state) {
+            case "ALL":
+                return isOwner ? bookingRepository.findPageByItemOwnerId(userId, page) :
+                        bookingRepository.findPageByBookerId(userId, page);
+            case "FUTURE":
+                return isOwner ? bookingRepository.findFuturePageByItemOwnerId(userId, now, page) :
+                        bookingRepository.findFuturePageByBookerId(userId, now, page);
+            case "CURRENT":
+                return isOwner ? bookingRepository.findCurrentPageByItemOwnerId(userId, now, page) :
+                        bookingRepository.findCurrentPageByBookerId(userId, now, page);
+            case "PAST":
+                return isOwner ? bookingRepository.findPastPageByItemOwnerId(userId, now, page) :
+                        bookingRepository.findPastPageByBookerId(userId, now, page);
+            case "WAITING":
+                return isOwner ? bookingRepository.findPageByItemOwnerIdAndStatus(userId, Status.WAITING, page) :
+                        bookingRepository.findPageByBookerIdAndStatus(userId, Status.WAITING, page);
+            case "REJECTED":
+                return isOwner ? bookingRepository.findPageByItemOwnerIdAndStatus(userId, Status.REJECTED, page) :
+                        bookingRepository.findPageByBookerIdAndStatus(userId, Status.REJECTED, page);
+            default:
+                throw unknownState(state);
+        }
+    }
+
+    private List<BookingView> getBookingsAfter(long userId, String state, boolean isOwner, PageCursor cursor,
+                                           LocalDateTime now, Pageable page) {
+        LocalDateTime start = cursor.getPosition();
+        long id = cursor.getId();
         switch (state) {
             case "ALL":
-                return isOwner ? bookingRepository.findAllByItemOwnerId(userId, page) :
-                        bookingRepository.findAllByBookerId(userId, page);
+                return isOwner ? bookingRepository.findPageByItemOwnerId(userId, start, id, page) :
+                        bookingRepository.findPageByBookerId(userId, start, id, page);
             case "FUTURE":
-                return isOwner ? bookingRepository.findAllByItemOwnerIdAndStartIsAfter(userId, LocalDateTime.now(), page) :
-                        bookingRepository.findAllByBookerIdAndStartIsAfter(userId, LocalDateTime.now(), page);
+                return isOwner ? bookingRepository.findFuturePageByItemOwnerId(userId, start, id, now, page) :
+                        bookingRepository.findFuturePageByBookerId(userId, start, id, now, page);
             case "CURRENT":
-                return isOwner ? bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId,
-                        LocalDateTime.now(), LocalDateTime.now(), page) :
-                        bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(userId, LocalDateTime.now(),
-                                LocalDateTime.now(), page);
+                return isOwner ? bookingRepository.findCurrentPageByItemOwnerId(userId, start, id, now, page) :
+                        bookingRepository.findCurrentPageByBookerId(userId, start, id, now, page);
             case "PAST":
-                return isOwner ? bookingRepository.findAllByItemOwnerIdAndEndIsBefore(userId, LocalDateTime.now(), page) :
-                        bookingRepository.findAllByBookerIdAndEndIsBefore(userId, LocalDateTime.now(), page);
+                return isOwner ? bookingRepository.findPastPageByItemOwnerId(userId, start, id, now, page) :
+                        bookingRepository.findPastPageByBookerId(userId, start, id, now, page);
             case "WAITING":
-                return isOwner ? bookingRepository.findAllByItemOwnerIdAndStatus(userId, Status.WAITING, page) :
-                        bookingRepository.findAllByBookerIdAndStatus(userId, Status.WAITING, page);
+                return isOwner ? bookingRepository.findPageByItemOwnerIdAndStatus(userId, start, id, Status.WAITING, page) :
+                        bookingRepository.findPageByBookerIdAndStatus(userId, start, id, Status.WAITING, page);
             case "REJECTED":
-                return isOwner ? bookingRepository.findAllByItemOwnerIdAndStatus(userId, Status.REJECTED, page) :
-                        bookingRepository.findAllByBookerIdAndStatus(userId, Status.REJECTED, page);
+                return isOwner ? bookingRepository.findPageByItemOwnerIdAndStatus(userId, start, id, Status.REJECTED, page) :
+                        bookingRepository.findPageByBookerIdAndStatus(userId, start, id, Status.REJECTED, page);
             default:
-                log.error("Unknown state:" + state.toUpperCase());
-                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+                throw unknownState(state);
         }
     }
 
-    private List<BookingOutDto> toBookingOutDto(List<Booking> bookings) {
+    private ValidationException unknownState(String state) {
+        log.error("Unknown state:" + state.toUpperCase());
+        return new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+    }
+
+    private List<BookingOutDto> toBookingOutDto(List<BookingView> bookings) {
         return bookings.stream()
                 .map(mappingBooking::mapToBookingOutDto)
                 .collect(Collectors.toList());
     }
-
-    private boolean checkIsBusyTime(BookingDto booking) {
-        long itemId = booking.getItemId();
-        LocalDateTime start = booking.getStart();
-        LocalDateTime end = booking.getEnd();
-        List<Booking> crossingTimeBooking = bookingRepository.findAllWithCrossingTime(itemId, start, end);
-        return !crossingTimeBooking.isEmpty();
-    }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package ru.practicum.shareit.exception;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.user.repository.UsersEmailIndexMigration;
+import java.util.Locale;
 
 @RestControllerAdvice
 public class ErrorHandler {
@@ -24,4 +30,44 @@ public class ErrorHandler {
     public ErrorResponse conflictHandle(final ObjectConflictException e) {
         return new ErrorResponse("ObjectConflictException", e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse optimisticLockHandle(final ObjectOptimisticLockingFailureException e) {
+        return new ErrorResponse("ObjectConflictException", "Object has been changed concurrently, try again");
+    }
+
+    /**
+     * The email check skips the database when the email filter has never seen the address, so an address
+     * taken through another node or by a concurrent request is only caught by the unique index.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> integrityViolationHandle(final DataIntegrityViolationException e) {
+        if (UsersEmailIndexMigration.USERS_EMAIL_INDEX.equals(getViolatedConstraint(e))) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("ObjectConflictException",
+                    "User with the same email address is already exists"));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse(
+                "DataIntegrityViolationException", "Data integrity violation"));
+    }
+
+    /**
+     * Returns the lower-case name of the violated constraint, without its schema. Some dialects leave the rest
+     * of the driver message after the name, as in "PUBLIC.USERS_EMAIL_UQ ON PUBLIC.USERS(EMAIL)".
+     */
+    private static String getViolatedConstraint(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String name = ((ConstraintViolationException) cause).getConstraintName();
+                if (name == null) {
+                    return null;
+                }
+                name = name.replace("\"", "").trim();
+                int end = name.indexOf(' ');
+                name = end < 0 ? name : name.substring(0, end);
+                return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import ru.practicum.shareit.item.dto.BulkItemDto;
+import ru.practicum.shareit.item.dto.BulkItemResult;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserService;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an NDJSON upload of {@link BulkItemDto} lines and answers with one {@link BulkItemResult} line per
+ * non-blank input line, in input order. Results carry the line number counted here; a line field sent in
+ * the upload is ignored. Items are saved in batches of a transaction each, so memory stays bounded by
+ * the batch size however long the upload is.
+ */
+@Component
+public class ItemBulkImporter {
+    public static final String NDJSON = "application/x-ndjson";
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ItemBulkImporter(ItemService itemService, UserService userService, ObjectMapper objectMapper,
+                            @Value("${shareit.items.bulk.batch-size:100}") int batchSize) {
+        this.itemService = itemService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public void importItems(long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        userService.findUserById(userId);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        List<BulkItemDto> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            BulkItemDto bulkItem;
+            try {
+                bulkItem = objectMapper.readValue(line, BulkItemDto.class);
+            } catch (JsonProcessingException e) {
+                bulkItem = null;
+            }
+            if (bulkItem == null || bulkItem.getItem() == null) {
+                saveBatch(userId, batch, writer);
+                write(writer, BulkItemResult.failed(lineNumber, HttpStatus.BAD_REQUEST, "Line isn't a valid item"));
+                continue;
+            }
+            bulkItem.setLine(lineNumber);
+            batch.add(bulkItem);
+            if (batch.size() == batchSize) {
+                saveBatch(userId, batch, writer);
+            }
+        }
+        saveBatch(userId, batch, writer);
+        writer.flush();
+    }
+
+    private void saveBatch(long userId, List<BulkItemDto> batch, Writer writer) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (BulkItemResult result : itemService.addItems(userId, batch)) {
+            write(writer, result);
+        }
+        batch.clear();
+        writer.flush();
+    }
+
+    private void write(Writer writer, BulkItemResult result) throws IOException {
+        writer.write(objectMapper.writeValueAsString(result));
+        writer.write('\n');
+    }
+}
@@ -11,10 +11,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemExtDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.EntityTag;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +29,7 @@ import java.util.Map;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemBulkImporter itemBulkImporter;
 
     @PostMapping
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody ItemDto itemDto) {
@@ -31,6 +37,13 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/bulk", consumes = ItemBulkImporter.NDJSON)
+    public void addItems(@RequestHeader("X-Sharer-User-Id") long userId, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        log.info("Create request to add items in bulk for user with id = " + userId);
+        itemBulkImporter.importItems(userId, request, response);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody Map<String, Object> fields,
                            @PathVariable long itemId) {
@@ -39,17 +52,29 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemExtDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
+    public ItemExtDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
+                                  WebRequest request) {
         log.info("Create request to find item with id = " + itemId);
-        return itemService.getItemById(userId, itemId);
+        ItemExtDto item = itemService.getItemById(userId, itemId);
+        if (tag(new EntityTag(), item).checkNotModified(request)) {
+            return null;
+        }
+        return item;
     }
 
     @GetMapping
     public List<ItemExtDto> getAllUserItems(@RequestHeader("X-Sharer-User-Id") long userId,
                                             @RequestParam(defaultValue = "0") int from,
-                                            @RequestParam(defaultValue = "10") int size) {
+                                            @RequestParam(defaultValue = "10") int size,
+                                            WebRequest request) {
         log.info("Create request to find all items of user with id = " + userId);
-        return itemService.getAllUserItems(userId, from, size);
+        List<ItemExtDto> items = itemService.getAllUserItems(userId, from, size);
+        EntityTag tag = new EntityTag().with(items.size());
+        items.forEach(item -> tag(tag, item));
+        if (tag.checkNotModified(request)) {
+            return null;
+        }
+        return items;
     }
 
     @GetMapping("/search")
@@ -60,6 +85,15 @@ public class ItemController {
         return itemService.findItems(text, from, size);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getItemComments(@PathVariable long itemId,
+                                            @RequestParam(defaultValue = "0") int from,
+                                            @RequestParam(defaultValue = "10") int size,
+                                            @RequestParam(required = false) String after) {
+        log.info("Create request to find comments of item with id = " + itemId);
+        return itemService.getItemComments(itemId, from, size, after);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader ("X-Sharer-User-Id") long userId, @PathVariable long itemId,
                               @RequestBody CommentDto commentDto) {
@@ -67,4 +101,21 @@ public class ItemController {
                 + commentDto + " for item with id =" + itemId);
         return itemService.addComment(userId, itemId, commentDto);
     }
+
+    /**
+     * Booking and comment fields in the item view never change for a given id, except the author name,
+     * so the ids stand in for their versions.
+     */
+    private static EntityTag tag(EntityTag tag, ItemExtDto item) {
+        tag.with(item.getId()).with(item.getVersion()).with(item.getOwner().getVersion())
+                .with(item.getLastBooking() == null ? 0 : item.getLastBooking().getId())
+                .with(item.getNextBooking() == null ? 0 : item.getNextBooking().getId())
+                .with(item.getCommentCount());
+        if (item.getComments() != null) {
+            for (CommentDto comment : item.getComments()) {
+                tag.with(comment.getId()).with(comment.getAuthorName());
+            }
+        }
+        return tag;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a bulk item upload: the item and its line number, which the importer sets as it reads.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemDto {
+    private long line;
+    private ItemDto item;
+}
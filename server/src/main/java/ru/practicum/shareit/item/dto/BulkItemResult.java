@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    private long line;
+    private int status;
+    private ItemDto item;
+    private String error;
+
+    public static BulkItemResult added(long line, ItemDto item) {
+        return new BulkItemResult(line, HttpStatus.OK.value(), item, null);
+    }
+
+    public static BulkItemResult failed(long line, HttpStatus status, String error) {
+        return new BulkItemResult(line, status.value(), null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public interface CommentView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getAuthorId();
+
+    String getText();
+
+    LocalDateTime getCreated();
+
+    long getTotal();
+}
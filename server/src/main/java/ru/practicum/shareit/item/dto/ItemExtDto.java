@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import java.util.List;
@@ -21,4 +22,7 @@ public class ItemExtDto {
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
     private List<CommentDto> comments;
+    private long commentCount;
+    @JsonIgnore
+    private long version;
 }
\ No newline at end of file
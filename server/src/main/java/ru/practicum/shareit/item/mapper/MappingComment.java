@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.mapper;
 
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 @Service
@@ -16,6 +17,15 @@ public class MappingComment {
         return commentDto;
     }
 
+    public CommentDto mapToItemDto(CommentView comment, String authorName) {
+        CommentDto commentDto = new CommentDto();
+        commentDto.setId(comment.getId());
+        commentDto.setText(comment.getText());
+        commentDto.setAuthorName(authorName);
+        commentDto.setCreated(comment.getCreated().toString());
+        return commentDto;
+    }
+
     public Comment mapToItem(CommentDto commentDto) {
         Comment comment = new Comment();
         comment.setText(commentDto.getText());
@@ -2,9 +2,11 @@ package ru.practicum.shareit.item.mapper;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.user.model.User;
 
 @Service
@@ -26,26 +28,34 @@ public class MappingItem {
         itemExtDto.setName(item.getName());
         itemExtDto.setDescription(item.getDescription());
         itemExtDto.setAvailable(item.getAvailable());
-        itemExtDto.setOwner(item.getOwner());
+        User owner = item.getOwner();
+        itemExtDto.setOwner(new User(owner.getId(), owner.getName(), owner.getEmail(), owner.getVersion()));
         itemExtDto.setRequestId(item.getRequestId());
+        itemExtDto.setVersion(item.getVersion());
         return itemExtDto;
     }
 
+    public BookingShortDto mapToLastBooking(ItemBookingSummary summary) {
+        if (summary.getLastBookingId() == null) {
+            return null;
+        }
+        return new BookingShortDto(summary.getLastBookingId(), summary.getLastBookerId(), summary.getLastStart(),
+                summary.getLastEnd());
+    }
+
+    public BookingShortDto mapToNextBooking(ItemBookingSummary summary) {
+        if (summary.getNextBookingId() == null) {
+            return null;
+        }
+        return new BookingShortDto(summary.getNextBookingId(), summary.getNextBookerId(), summary.getNextStart(),
+                summary.getNextEnd());
+    }
+
     public Item mapToItem(ItemDto itemDto) {
         String name = itemDto.getName();
         String description = itemDto.getDescription();
         boolean available = itemDto.getAvailable();
         Long requestId = itemDto.getRequestId();
-        return new Item(null, name, description, available, null, requestId);
-    }
-
-    public Item mapToItem(ItemExtDto itemExtDto) {
-        long id = itemExtDto.getId();
-        String name = itemExtDto.getName();
-        String description = itemExtDto.getDescription();
-        boolean available = itemExtDto.getAvailable();
-        User owner = itemExtDto.getOwner();
-        Long requestId = itemExtDto.getRequestId();
-        return new Item(id, name, description, available, owner, requestId);
+        return new Item(null, name, description, available, null, requestId, 0);
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Last booking, next approved booking and booking counts of an item, as of the moment it was computed.
+ * It stays valid until refreshAt, the start of the item's next booking, when that booking becomes a candidate
+ * for the last one.
+ */
+@Data
+@Entity
+@Table(name = "item_booking_summary")
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    private Long lastBookingId;
+    private Long lastBookerId;
+    private LocalDateTime lastStart;
+    private LocalDateTime lastEnd;
+    private Long nextBookingId;
+    private Long nextBookerId;
+    private LocalDateTime nextStart;
+    private LocalDateTime nextEnd;
+    @Column(nullable = false)
+    private long waitingCount;
+    @Column(nullable = false)
+    private long approvedCount;
+    @Column(nullable = false)
+    private long rejectedCount;
+    @Column(nullable = false)
+    private long canceledCount;
+    private LocalDateTime refreshAt;
+
+    public ItemBookingSummary(long itemId) {
+        this.itemId = itemId;
+    }
+}
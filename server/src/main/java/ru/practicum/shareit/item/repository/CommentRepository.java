@@ -1,13 +1,33 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    @Query("select c from Comment as c join c.item as i where i.id = ?1")
-    List<Comment> findAllByItemId(long itemId);
-}
\ No newline at end of file
+    @Query("select c from Comment as c join fetch c.author where c.item.id = ?1 order by c.created desc, c.id desc")
+    List<Comment> findPageByItemId(long itemId, Pageable page);
+
+    @Query("select c from Comment as c join fetch c.author where c.item.id = ?1" +
+            " and (c.created < ?2 or (c.created = ?2 and c.id < ?3)) order by c.created desc, c.id desc")
+    List<Comment> findPageByItemId(long itemId, LocalDateTime cursorCreated, long cursorId, Pageable page);
+
+    /**
+     * The newest comments of every item, at most limit per item, each row carrying the item's comment count.
+     */
+    @Query(value = "select t.id as id, t.item_id as itemId, t.author_id as authorId, t.text as text," +
+            " t.created as created, t.total as total from (" +
+            "select c.id, c.item_id, c.author_id, c.text, c.created," +
+            " row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn," +
+            " count(*) over (partition by c.item_id) as total" +
+            " from comments c where c.item_id in (?1)" +
+            ") t where t.rn <= ?2 order by t.item_id, t.rn", nativeQuery = true)
+    List<CommentView> findRecentByItemIdIn(Collection<Long> itemIds, int limit);
+}
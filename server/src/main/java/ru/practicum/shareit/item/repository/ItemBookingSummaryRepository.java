@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Query("select s.itemId from ItemBookingSummary as s where s.refreshAt < ?1 order by s.refreshAt")
+    List<Long> findStaleItemIds(LocalDateTime now, Pageable page);
+
+    /**
+     * Locks the item's row until the transaction ends. Refreshes of a summary, including the one that inserts
+     * it, take this lock first and so run one after another, each reading the bookings the previous one saw.
+     */
+    @Query(value = "select id from items where id = ?1 for update", nativeQuery = true)
+    Long lockItem(long itemId);
+
+    @Modifying
+    @Query("update ItemBookingSummary as s set s.refreshAt = ?2" +
+            " where s.itemId in (select b.item.id from Booking as b where b.booker.id = ?1)")
+    int markStaleByBookerId(long bookerId, LocalDateTime refreshAt);
+}
@@ -1,21 +1,49 @@
 package ru.practicum.shareit.item.repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findById(Long id);
+
+    /**
+     * Locks only the item's row: Postgres can't lock the nullable side of the outer join an owner graph would
+     * add. The owner is loaded separately when it is needed.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(long id);
+
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Item> findAllByOwnerId(long ownerId, Pageable page);
 
-    @Query("select i from Item as i where ((i.available = true) and ((lower(i.name) like" +
-            " lower(concat('%', ?1, '%'))) or (lower(i.description) like lower(concat('%', ?1, '%')))))")
-    List<Item> findAllContainingIgnoreCase(String text, Pageable page);
+    @Query("select i from Item as i where i.available = true and i.id > ?1 order by i.id")
+    List<Item> findAllAvailableAfterId(long id, Pageable page);
+
+    /**
+     * The text is a lower-case like pattern with its wildcards escaped by a backslash.
+     */
+    @Query("select i from Item as i where i.available = true and (lower(i.name) like concat('%', ?1, '%')" +
+            " escape '\\' or lower(i.description) like concat('%', ?1, '%') escape '\\') order by i.id")
+    List<Item> findAllAvailableContaining(String text, Pageable page);
 
     Item findByRequestId(long requestId);
 
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import java.time.LocalDateTime;
+
+/**
+ * A user may comment on an item once one of their approved bookings of it has ended. An approved booking
+ * can't change its status or dates any more, so a user who is eligible stays eligible and only the positive
+ * answers are cached, until the bookings go away with a deleted user.
+ */
+@Component
+public class CommentEligibility {
+    private final BookingRepository bookingRepository;
+    private final Cache<Key, Boolean> eligible;
+
+    public CommentEligibility(BookingRepository bookingRepository,
+                              @Value("${shareit.items.comments.eligibility-cache-size:100000}") long cacheSize) {
+        this.bookingRepository = bookingRepository;
+        this.eligible = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public boolean isEligible(long userId, long itemId) {
+        Key key = new Key(userId, itemId);
+        if (eligible.getIfPresent(key) != null) {
+            return true;
+        }
+        boolean hasEndedBooking = !bookingRepository.findEndedIds(userId, itemId, Status.APPROVED,
+                LocalDateTime.now(), PageRequest.of(0, 1)).isEmpty();
+        if (hasEndedBooking) {
+            eligible.put(key, Boolean.TRUE);
+        }
+        return hasEndedBooking;
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        eligible.invalidateAll();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final long userId;
+        private final long itemId;
+    }
+}
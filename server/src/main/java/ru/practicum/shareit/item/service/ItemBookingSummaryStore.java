@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingStatusCount;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps item_booking_summary in step with the booking table. A new or confirmed booking is applied to the
+ * summary in the transaction that writes it, and the scheduled refresh recomputes the summaries whose next
+ * booking has started or that were marked stale. Until then readers get no summary for such an item and have
+ * to ask the booking table themselves. An item without a summary row has never been booked. Changes of one
+ * summary are serialized by a lock on its row in items, so none of them can be lost to a concurrent one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaryStore {
+    private static final int REFRESH_BATCH_SIZE = 500;
+    private static final LocalDateTime STALE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public Optional<ItemBookingSummary> findValid(long itemId, LocalDateTime now) {
+        ItemBookingSummary summary = summaryRepository.findById(itemId)
+                .orElseGet(() -> new ItemBookingSummary(itemId));
+        return isValid(summary, now) ? Optional.of(summary) : Optional.empty();
+    }
+
+    public Map<Long, ItemBookingSummary> findValid(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (long itemId : itemIds) {
+            summaries.put(itemId, new ItemBookingSummary(itemId));
+        }
+        for (ItemBookingSummary summary : summaryRepository.findAllById(itemIds)) {
+            summaries.put(summary.getItemId(), summary);
+        }
+        summaries.values().removeIf(summary -> !isValid(summary, now));
+        return summaries;
+    }
+
+    /**
+     * Counts a new booking, which may become the last one or bring the refresh forward. Has to run in the
+     * transaction that inserted the booking.
+     */
+    public void addBooking(long itemId, BookingShortDto booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lockSummary(itemId);
+        count(summary, Status.WAITING, 1);
+        if (booking.getStart().isBefore(now)) {
+            if (summary.getLastEnd() == null || booking.getEnd().isAfter(summary.getLastEnd())) {
+                setLast(summary, booking);
+            }
+        } else if (summary.getRefreshAt() == null || booking.getStart().isBefore(summary.getRefreshAt())) {
+            summary.setRefreshAt(booking.getStart());
+        }
+        summaryRepository.save(summary);
+    }
+
+    /**
+     * Moves a waiting booking to its new status, and makes it the next one if it is approved and starts before
+     * the stored next booking. Has to run in the transaction that changed the status.
+     */
+    public void confirmBooking(long itemId, BookingShortDto booking, Status status) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lockSummary(itemId);
+        count(summary, Status.WAITING, -1);
+        count(summary, status, 1);
+        if (status == Status.APPROVED && booking.getStart().isAfter(now)
+                && (summary.getNextStart() == null || booking.getStart().isBefore(summary.getNextStart()))) {
+            setNext(summary, booking);
+        }
+        summaryRepository.save(summary);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-summary.refresh-delay:60000}")
+    public void refreshStale() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds;
+        do {
+            itemIds = transactionTemplate.execute(status -> {
+                List<Long> staleItemIds = summaryRepository.findStaleItemIds(now, PageRequest.of(0, REFRESH_BATCH_SIZE));
+                staleItemIds.forEach(itemId -> refresh(itemId, now));
+                return staleItemIds;
+            });
+            log.debug("Refreshed booking summaries of " + itemIds.size() + " items");
+        } while (itemIds.size() == REFRESH_BATCH_SIZE);
+    }
+
+    /**
+     * Deleting a user cascades to their bookings in the database, so the summaries of the items they booked
+     * are marked stale while those bookings are still there to be found.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        summaryRepository.markStaleByBookerId(event.getUserId(), STALE);
+    }
+
+    private void refresh(long itemId, LocalDateTime now) {
+        ItemBookingSummary summary = lockSummary(itemId);
+        setLast(summary, bookingRepository.findFirstByItemIdAndStartBeforeOrderByEndDesc(itemId, now));
+        setNext(summary, bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(itemId, now,
+                Status.APPROVED));
+        summary.setWaitingCount(0);
+        summary.setApprovedCount(0);
+        summary.setRejectedCount(0);
+        summary.setCanceledCount(0);
+        for (BookingStatusCount statusCount : bookingRepository.countByItemIdGroupByStatus(itemId)) {
+            count(summary, statusCount.getStatus(), statusCount.getTotal());
+        }
+        summary.setRefreshAt(bookingRepository.findFirstStartFrom(itemId, now));
+        summaryRepository.save(summary);
+    }
+
+    private ItemBookingSummary lockSummary(long itemId) {
+        summaryRepository.lockItem(itemId);
+        return summaryRepository.findById(itemId)
+                .orElseGet(() -> new ItemBookingSummary(itemId));
+    }
+
+    private static void setLast(ItemBookingSummary summary, BookingShortDto last) {
+        summary.setLastBookingId(last == null ? null : last.getId());
+        summary.setLastBookerId(last == null ? null : last.getBookerId());
+        summary.setLastStart(last == null ? null : last.getStart());
+        summary.setLastEnd(last == null ? null : last.getEnd());
+    }
+
+    private static void setNext(ItemBookingSummary summary, BookingShortDto next) {
+        summary.setNextBookingId(next == null ? null : next.getId());
+        summary.setNextBookerId(next == null ? null : next.getBookerId());
+        summary.setNextStart(next == null ? null : next.getStart());
+        summary.setNextEnd(next == null ? null : next.getEnd());
+    }
+
+    private static void count(ItemBookingSummary summary, Status status, long delta) {
+        switch (status) {
+            case WAITING:
+                summary.setWaitingCount(summary.getWaitingCount() + delta);
+                break;
+            case APPROVED:
+                summary.setApprovedCount(summary.getApprovedCount() + delta);
+                break;
+            case REJECTED:
+                summary.setRejectedCount(summary.getRejectedCount() + delta);
+                break;
+            default:
+                summary.setCanceledCount(summary.getCanceledCount() + delta);
+        }
+    }
+
+    private static boolean isValid(ItemBookingSummary summary, LocalDateTime now) {
+        return summary.getRefreshAt() == null || summary.getRefreshAt().isAfter(now);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Deleting a user cascades to their items in the database, behind Hibernate's back, so neither the cached
+ * items nor the cached owner item queries are invalidated on their own.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCacheEviction {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        entityManagerFactory.getCache().evict(Item.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.mapper.MappingComment;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.TransactionUtils;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The newest comments of an item with the item's comment count, as embedded in the item views.
+ * Windows hold author ids rather than names, since a user can be renamed without touching their comments;
+ * names are looked up through the cached users on the way out. The cache is node-local, so a window also
+ * expires after a while to pick up comments added through another node.
+ */
+@Component
+public class ItemCommentWindow {
+    private static final Duration EXPIRY = Duration.ofMinutes(1);
+    private final CommentRepository commentRepository;
+    private final UserRepository userRepository;
+    private final MappingComment mappingComment;
+    private final int size;
+    private final Cache<Long, RecentComments> windows;
+
+    public ItemCommentWindow(CommentRepository commentRepository, UserRepository userRepository,
+                             MappingComment mappingComment,
+                             @Value("${shareit.items.comments.recent-size:10}") int size,
+                             @Value("${shareit.items.comments.cache-size:10000}") long cacheSize) {
+        this.commentRepository = commentRepository;
+        this.userRepository = userRepository;
+        this.mappingComment = mappingComment;
+        this.size = size;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(EXPIRY)
+                .build();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public RecentComments get(long itemId) {
+        return windows.get(itemId, id -> load(List.of(id)).get(id));
+    }
+
+    public Map<Long, RecentComments> getAll(Collection<Long> itemIds) {
+        return windows.getAll(itemIds, ids -> {
+            List<Long> missing = new ArrayList<>();
+            ids.forEach(missing::add);
+            return load(missing);
+        });
+    }
+
+    /**
+     * Reloads the item's window once the transaction that added a comment to it has committed.
+     * Loads of the same item are serialized, so the window can't be overwritten with an older one.
+     */
+    public void refresh(long itemId) {
+        TransactionUtils.afterCommit(() ->
+                windows.asMap().computeIfPresent(itemId, (id, window) -> load(List.of(id)).get(id)));
+    }
+
+    public List<CommentDto> mapToCommentDtos(List<CommentView> comments) {
+        return mapToCommentDtos(comments, findAuthorNames(comments));
+    }
+
+    public List<CommentDto> mapToCommentDtos(List<CommentView> comments, Map<Long, String> authorNames) {
+        return comments.stream()
+                .map(comment -> mappingComment.mapToItemDto(comment, authorNames.get(comment.getAuthorId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Looks up the names of all authors of the comments at once. The ids are sorted, so the same authors make
+     * the same query and it is answered from the query cache next time.
+     */
+    public Map<Long, String> findAuthorNames(Collection<CommentView> comments) {
+        if (comments.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> authorIds = comments.stream()
+                .map(CommentView::getAuthorId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        return userRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(User::getId, User::getName));
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        windows.invalidateAll();
+    }
+
+    private Map<Long, RecentComments> load(Collection<Long> itemIds) {
+        Map<Long, List<CommentView>> comments = commentRepository.findRecentByItemIdIn(itemIds, size).stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId));
+        Map<Long, RecentComments> loaded = new HashMap<>();
+        for (long itemId : itemIds) {
+            List<CommentView> recent = comments.getOrDefault(itemId, List.of());
+            loaded.put(itemId, new RecentComments(List.copyOf(recent),
+                    recent.isEmpty() ? 0 : recent.get(0).getTotal()));
+        }
+        return loaded;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class RecentComments {
+        private final List<CommentView> comments;
+        private final long total;
+    }
+}
@@ -0,0 +1,304 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.TransactionUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-process n-gram index over names and descriptions of available items. Every 2- and 3-gram of a document
+ * points to the sorted ids containing it, so a substring query only verifies the ids its grams have in common
+ * instead of scanning the whole table. Single characters would point to nearly every item, so they are not
+ * indexed and such queries are left to the database.
+ *
+ * <p>The index is node-local and only learns about items saved through this node, so it serves a single node.
+ * Running several nodes against one database needs a shared search instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    private static final int MIN_GRAM_LENGTH = 2;
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private final ItemRepository itemRepository;
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAllAvailableAfterId(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Item item : batch) {
+                    addDocument(new Document(item));
+                    lastId = item.getId();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("Search index has been rebuilt with " + documents.size() + " items");
+    }
+
+    public void put(Item item) {
+        Document document = new Document(item);
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(document.id);
+                if (available) {
+                    addDocument(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns the page of available items containing the text, ordered by id, or nothing if the text is too
+     * short to be looked up here.
+     */
+    public Optional<List<ItemDto>> search(String text, int from, int size) {
+        String query = text.toLowerCase();
+        if (query.length() < MIN_GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        int offset = from > 0 ? from / size * size : 0;
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (String gram : getQueryGrams(query)) {
+                Postings ids = postings.get(gram);
+                if (ids == null) {
+                    return Optional.of(Collections.emptyList());
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(ids -> ids.size));
+            if (query.length() <= GRAM_LENGTH) {
+                return Optional.of(getPage(lists.get(0), offset, size));
+            }
+            return Optional.of(getVerifiedPage(lists, query, offset, size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ownedItems = documents.values().stream()
+                    .filter(document -> document.ownerId == event.getUserId())
+                    .map(document -> document.id)
+                    .collect(Collectors.toList());
+            ownedItems.forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A query that is a gram itself is contained in exactly the documents of its postings, so the page is
+     * sliced out of them directly.
+     */
+    private List<ItemDto> getPage(Postings ids, int offset, int size) {
+        List<ItemDto> items = new ArrayList<>(size);
+        for (int i = offset; i < ids.size && items.size() < size; i++) {
+            items.add(documents.get(ids.ids[i]).toItemDto());
+        }
+        return items;
+    }
+
+    /**
+     * Walks the ids all grams of the query have in common, rarest gram first. Having every gram doesn't make
+     * a document contain the query, so each candidate is still verified, skipped ones too.
+     */
+    private List<ItemDto> getVerifiedPage(List<Postings> lists, String query, int offset, int size) {
+        Postings rarest = lists.get(0);
+        int[] positions = new int[lists.size()];
+        List<ItemDto> items = new ArrayList<>(size);
+        int skipped = 0;
+        candidates:
+        for (int i = 0; i < rarest.size && items.size() < size; i++) {
+            long id = rarest.ids[i];
+            for (int list = 1; list < lists.size(); list++) {
+                Postings ids = lists.get(list);
+                positions[list] = ids.seek(id, positions[list]);
+                if (positions[list] == ids.size) {
+                    break candidates;
+                }
+                if (ids.ids[positions[list]] != id) {
+                    continue candidates;
+                }
+            }
+            Document document = documents.get(id);
+            if (!document.matches(query)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            items.add(document.toItemDto());
+        }
+        return items;
+    }
+
+    private void addDocument(Document document) {
+        documents.put(document.id, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(document.id);
+        }
+    }
+
+    private void removeDocument(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            Postings ids = postings.get(gram);
+            ids.remove(id);
+            if (ids.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> getQueryGrams(String query) {
+        if (query.length() <= GRAM_LENGTH) {
+            return Set.of(query);
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            grams.add(query.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        for (int length = MIN_GRAM_LENGTH; length <= GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= text.length(); i++) {
+                grams.add(text.substring(i, i + length));
+            }
+        }
+    }
+
+    /**
+     * Ids of the documents containing a gram, sorted in a primitive array. Items get increasing ids, so adding
+     * one is an append in the common case.
+     */
+    private static class Postings {
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long id) {
+            int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                position = -position - 1;
+            } else if (position < size) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            if (size > 2 && size <= ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+        }
+
+        /**
+         * Returns the position of the first id not less than the given one, looking from the position on.
+         */
+        int seek(long id, int from) {
+            int position = Arrays.binarySearch(ids, from, size, id);
+            return position < 0 ? -position - 1 : position;
+        }
+    }
+
+    private static class Document {
+        private final long id;
+        private final long ownerId;
+        private final String name;
+        private final String description;
+        private final Long requestId;
+        private final String lowerName;
+        private final String lowerDescription;
+
+        Document(Item item) {
+            this.id = item.getId();
+            this.ownerId = item.getOwner().getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.requestId = item.getRequestId();
+            this.lowerName = name.toLowerCase();
+            this.lowerDescription = description == null ? "" : description.toLowerCase();
+        }
+
+        boolean matches(String query) {
+            return lowerName.contains(query) || lowerDescription.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            addGrams(lowerName, grams);
+            addGrams(lowerDescription, grams);
+            return grams;
+        }
+
+        ItemDto toItemDto() {
+            return new ItemDto(id, name, description, true, requestId, null);
+        }
+    }
+}
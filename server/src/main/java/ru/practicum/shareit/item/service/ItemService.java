@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.BulkItemDto;
+import ru.practicum.shareit.item.dto.BulkItemResult;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtDto;
@@ -9,6 +11,11 @@ import java.util.Map;
 public interface ItemService {
     ItemDto addItem(long userId, ItemDto item);
 
+    /**
+     * Saves the valid items in one transaction and returns a result for every given item, in the same order.
+     */
+    List<BulkItemResult> addItems(long userId, List<BulkItemDto> items);
+
     ItemDto updateItem(long userId, Map<String, Object> fields, long itemId);
 
     ItemExtDto getItemById(long userId, long itemId);
@@ -17,7 +24,7 @@ public interface ItemService {
 
     List<ItemDto> findItems(String text, int from, int size);
 
-    List<CommentDto> findAllByItemId(long itemId);
+    List<CommentDto> getItemComments(long itemId, int from, int size, String after);
 
     CommentDto addComment(long userId, long itemId, CommentDto comment);
 
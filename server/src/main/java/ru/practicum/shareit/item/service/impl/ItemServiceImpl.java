@@ -3,34 +3,60 @@ package ru.practicum.shareit.item.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.BulkItemDto;
+import ru.practicum.shareit.item.dto.BulkItemResult;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtDto;
 import ru.practicum.shareit.item.mapper.MappingComment;
 import ru.practicum.shareit.item.mapper.MappingItem;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.CommentEligibility;
+import ru.practicum.shareit.item.service.ItemBookingSummaryStore;
+import ru.practicum.shareit.item.service.ItemCommentWindow;
+import ru.practicum.shareit.item.service.ItemCommentWindow.RecentComments;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.RequestFeed;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.sql.SqlMonitored;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Map;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
 import java.util.Comparator;
 import java.util.Collections;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@SqlMonitored
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
@@ -39,6 +65,13 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final MappingComment mappingComment;
+    private final ItemSearchIndex itemSearchIndex;
+    private final RequestRepository requestRepository;
+    private final ItemBookingSummaryStore itemBookingSummaryStore;
+    private final RequestFeed requestFeed;
+    private final ItemCommentWindow itemCommentWindow;
+    private final CommentEligibility commentEligibility;
+    private static final String LAST_BOOKING = "LAST";
 
     @Override
     @Transactional
@@ -46,7 +79,54 @@ public class ItemServiceImpl implements ItemService {
         Item item = mappingItem.mapToItem(itemDto);
         item.setOwner(userRepository.findById(userId)
                 .orElseThrow(() -> new ObjectNotFoundException("User with id = " + userId + " doesn't exist")));
-        return  mappingItem.mapToItemDto(itemRepository.save(item));
+        item = itemRepository.save(item);
+        itemSearchIndex.put(item);
+        ItemDto savedItem = mappingItem.mapToItemDto(item);
+        requestFeed.putItem(userId, savedItem);
+        return savedItem;
+    }
+
+    @Override
+    @Transactional
+    public List<BulkItemResult> addItems(long userId, List<BulkItemDto> items) {
+        User owner = userRepository.findById(userId)
+                .orElseThrow(() -> new ObjectNotFoundException("User with id = " + userId + " doesn't exist"));
+        Set<Long> requestIds = items.stream()
+                .map(bulkItem -> bulkItem.getItem().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = requestIds.isEmpty()
+                ? Collections.emptySet()
+                : requestRepository.findAllIdsByIdIn(requestIds);
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<Item> newItems = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BulkItemDto bulkItem = items.get(i);
+            ItemDto itemDto = bulkItem.getItem();
+            String error = checkNewItem(itemDto);
+            if (error != null) {
+                results[i] = BulkItemResult.failed(bulkItem.getLine(), HttpStatus.BAD_REQUEST, error);
+            } else if (itemDto.getRequestId() != null && !existingRequestIds.contains(itemDto.getRequestId())) {
+                results[i] = BulkItemResult.failed(bulkItem.getLine(), HttpStatus.NOT_FOUND,
+                        "Request with id = " + itemDto.getRequestId() + " doesn't exist");
+            } else {
+                Item item = mappingItem.mapToItem(itemDto);
+                item.setOwner(owner);
+                newItems.add(item);
+                positions.add(i);
+            }
+        }
+        itemRepository.saveAll(newItems);
+        for (int i = 0; i < newItems.size(); i++) {
+            Item item = newItems.get(i);
+            itemSearchIndex.put(item);
+            ItemDto savedItem = mappingItem.mapToItemDto(item);
+            requestFeed.putItem(userId, savedItem);
+            int position = positions.get(i);
+            results[position] = BulkItemResult.added(items.get(position).getLine(), savedItem);
+        }
+        return Arrays.asList(results);
     }
 
     @Override
@@ -69,7 +149,11 @@ public class ItemServiceImpl implements ItemService {
                 item.setAvailable((boolean)fields.get(field));
             }
         }
-        return mappingItem.mapToItemDto(itemRepository.save(item));
+        item = itemRepository.save(item);
+        itemSearchIndex.put(item);
+        ItemDto updatedItem = mappingItem.mapToItemDto(item);
+        requestFeed.putItem(userId, updatedItem);
+        return updatedItem;
     }
 
     @Override
@@ -79,13 +163,21 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new ObjectNotFoundException("Iten with id = " + itemId + " doesn't exist"));
         ItemExtDto itemExtDto = mappingItem.mapToExtItemDto(item);
         if (userId == item.getOwner().getId()) {
-            itemExtDto.setLastBooking(bookingRepository
-                    .findFirstByItemIdAndStartBeforeOrderByEndDesc(itemId, LocalDateTime.now()));
-            itemExtDto.setNextBooking(bookingRepository
-                    .findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(itemId,
-                            LocalDateTime.now(), Status.APPROVED));
+            LocalDateTime now = LocalDateTime.now();
+            Optional<ItemBookingSummary> summary = itemBookingSummaryStore.findValid(itemId, now);
+            if (summary.isPresent()) {
+                itemExtDto.setLastBooking(mappingItem.mapToLastBooking(summary.get()));
+                itemExtDto.setNextBooking(mappingItem.mapToNextBooking(summary.get()));
+            } else {
+                itemExtDto.setLastBooking(bookingRepository
+                        .findFirstByItemIdAndStartBeforeOrderByEndDesc(itemId, now));
+                itemExtDto.setNextBooking(bookingRepository
+                        .findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(itemId, now, Status.APPROVED));
+            }
         }
-        itemExtDto.setComments(findAllByItemId(itemId));
+        RecentComments comments = itemCommentWindow.get(itemId);
+        itemExtDto.setComments(itemCommentWindow.mapToCommentDtos(comments.getComments()));
+        itemExtDto.setCommentCount(comments.getTotal());
         return itemExtDto;
     }
 
@@ -93,28 +185,74 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     public List<ItemExtDto> getAllUserItems(long userId, int from, int size) {
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        return (itemRepository.findAllByOwnerId(userId, page).stream()
-                .map(this::changeItem)
-                .sorted(Comparator.comparing(ItemExtDto::getId))
+        List<Item> items = itemRepository.findAllByOwnerId(userId, page);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortDto> lastBookings = new HashMap<>();
+        Map<Long, BookingShortDto> nextBookings = new HashMap<>();
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryStore.findValid(itemIds, now);
+        summaries.forEach((itemId, summary) -> {
+            lastBookings.put(itemId, mappingItem.mapToLastBooking(summary));
+            nextBookings.put(itemId, mappingItem.mapToNextBooking(summary));
+        });
+        Set<Long> staleItemIds = new HashSet<>(itemIds);
+        staleItemIds.removeAll(summaries.keySet());
+        if (!staleItemIds.isEmpty()) {
+            for (BookingShortView view : bookingRepository.findLastAndNextByItemIdIn(staleItemIds, now)) {
+                BookingShortDto booking = new BookingShortDto(view.getId(), view.getBookerId(),
+                        view.getStartDate(), view.getEndDate());
+                if (LAST_BOOKING.equals(view.getKind())) {
+                    lastBookings.put(view.getItemId(), booking);
+                } else {
+                    nextBookings.put(view.getItemId(), booking);
+                }
+            }
+        }
+        Map<Long, RecentComments> comments = itemCommentWindow.getAll(itemIds);
+        Map<Long, String> authorNames = itemCommentWindow.findAuthorNames(comments.values().stream()
+                .flatMap(window -> window.getComments().stream())
                 .collect(Collectors.toList()));
+        return items.stream()
+                .map(item -> changeItem(item, lastBookings.get(item.getId()), nextBookings.get(item.getId()),
+                        comments.get(item.getId()), authorNames))
+                .sorted(Comparator.comparing(ItemExtDto::getId))
+                .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<ItemDto> findItems(String text, int from, int size) {
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        return itemRepository.findAllContainingIgnoreCase(text.toLowerCase(), page).stream()
-                .map(mappingItem::mapToItemDto)
-                .collect(Collectors.toList());
+        return itemSearchIndex.search(text, from, size).orElseGet(() -> {
+            String pattern = text.toLowerCase().replaceAll("[\\\\%_]", "\\\\$0");
+            return itemRepository.findAllAvailableContaining(pattern, PageRequest.of(from / size, size)).stream()
+                    .map(mappingItem::mapToItemDto)
+                    .collect(Collectors.toList());
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CommentDto> findAllByItemId(long itemId) {
-        return commentRepository.findAllByItemId(itemId).stream()
+    public List<CommentDto> getItemComments(long itemId, int from, int size, String after) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ObjectNotFoundException("Iten with id = " + itemId + " doesn't exist");
+        }
+        if (after == null && from + size <= itemCommentWindow.getSize()) {
+            List<CommentView> recent = itemCommentWindow.get(itemId).getComments();
+            return itemCommentWindow.mapToCommentDtos(recent.subList(Math.min(from, recent.size()),
+                    Math.min(from + size, recent.size())));
+        }
+        PageCursor cursor = PageCursor.parse(after, from);
+        Pageable page = new OffsetPageRequest(from, size);
+        List<Comment> comments = cursor == null ? commentRepository.findPageByItemId(itemId, page) :
+                commentRepository.findPageByItemId(itemId, cursor.getPosition(), cursor.getId(), page);
+        return comments.stream()
                 .map(mappingComment::mapToItemDto)
                 .collect(Collectors.toList());
     }
@@ -122,18 +260,14 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public CommentDto addComment(long userId, long itemId, CommentDto commentDto) {
-        Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest page = PageRequest.of(0, 100, sortByStartDesc);
-        List<Booking> bookings = bookingRepository.findAllByBookerIdAndEndIsBefore(userId,
-                        LocalDateTime.now(), page).stream()
-                .filter(bookingOutDto -> bookingOutDto.getItem()
-                        .getId() == itemId && bookingOutDto.getStatus() == Status.APPROVED)
-                .collect(Collectors.toList());
-        if (!bookings.isEmpty()) {
+        if (commentEligibility.isEligible(userId, itemId)) {
             Comment comment = mappingComment.mapToItem(commentDto);
-            comment.setAuthor(bookings.get(0).getBooker());
-            comment.setItem(bookings.get(0).getItem());
-            return mappingComment.mapToItemDto(commentRepository.save(comment));
+            comment.setAuthor(userRepository.getReferenceById(userId));
+            comment.setItem(itemRepository.getReferenceById(itemId));
+            comment.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+            comment = commentRepository.save(comment);
+            itemCommentWindow.refresh(itemId);
+            return mappingComment.mapToItemDto(comment);
         }
         throw new ValidationException("User with id = " + userId + " can't add comments for things with id = " + itemId);
     }
@@ -144,14 +278,13 @@ public class ItemServiceImpl implements ItemService {
         return mappingItem.mapToItemDto(itemRepository.findByRequestId(requestId));
     }
 
-    private ItemExtDto changeItem(Item item) {
+    private ItemExtDto changeItem(Item item, BookingShortDto lastBooking, BookingShortDto nextBooking,
+                                  RecentComments comments, Map<Long, String> authorNames) {
         ItemExtDto itemExtDto = mappingItem.mapToExtItemDto(item);
-        itemExtDto.setLastBooking(bookingRepository
-                .findFirstByItemIdAndStartBeforeOrderByEndDesc(item.getId(), LocalDateTime.now()));
-        itemExtDto.setNextBooking(bookingRepository
-                .findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(item.getId(),
-                        LocalDateTime.now(), Status.APPROVED));
-        itemExtDto.setComments(findAllByItemId(item.getId()));
+        itemExtDto.setLastBooking(lastBooking);
+        itemExtDto.setNextBooking(nextBooking);
+        itemExtDto.setComments(itemCommentWindow.mapToCommentDtos(comments.getComments(), authorNames));
+        itemExtDto.setCommentCount(comments.getTotal());
         return itemExtDto;
     }
 
@@ -159,4 +292,17 @@ public class ItemServiceImpl implements ItemService {
         userRepository.findById(userId)
                 .orElseThrow(() -> new ObjectNotFoundException("User with id = " + userId + " doesn't exist"));
     }
+
+    private static String checkNewItem(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Item name can't be blank";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Item description can't be blank";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Item availability must be set";
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -11,9 +11,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestExtDto;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.util.EntityTag;
 import java.util.List;
 
 @Slf4j
@@ -31,21 +34,51 @@ public class RequestController {
     }
 
     @GetMapping
-    public List<RequestExtDto> getAllUserRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public List<RequestExtDto> getAllUserRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                  WebRequest request) {
         log.info("Create request from user with id = " + userId + "to get all his requests of items");
-        return requestService.getAllOwnRequests(userId);
+        return notModifiedOrBody(requestService.getAllOwnRequests(userId), request);
     }
 
     @GetMapping("/all")
     public List<RequestExtDto> getAllOtherUserRequests(@RequestHeader("X-Sharer-User-Id") long userId,
                                                        @RequestParam(defaultValue = "0") int from,
-                                                       @RequestParam(defaultValue = "10") int size) {
-        return requestService.getAllOtherUserRequests(userId, from, size);
+                                                       @RequestParam(defaultValue = "10") int size,
+                                                       @RequestParam(required = false) String after,
+                                                       WebRequest request) {
+        return notModifiedOrBody(requestService.getAllOtherUserRequests(userId, from, size, after), request);
     }
 
     @GetMapping("/{requestId}")
-    public RequestExtDto getRequestById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long requestId) {
+    public RequestExtDto getRequestById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long requestId,
+                                        WebRequest request) {
         log.info("Create request to get request of item with id = " + requestId);
-        return requestService.getRequestById(requestId, userId);
+        RequestExtDto itemRequest = requestService.getRequestById(requestId, userId);
+        if (tag(new EntityTag(), itemRequest).checkNotModified(request)) {
+            return null;
+        }
+        return itemRequest;
+    }
+
+    private static List<RequestExtDto> notModifiedOrBody(List<RequestExtDto> requests, WebRequest request) {
+        EntityTag tag = new EntityTag().with(requests.size());
+        requests.forEach(itemRequest -> tag(tag, itemRequest));
+        if (tag.checkNotModified(request)) {
+            return null;
+        }
+        return requests;
+    }
+
+    /**
+     * A request can't be changed once created, so its id stands in for its version. The items shown with it
+     * carry no version, so the fields of theirs that are shown are hashed instead.
+     */
+    private static EntityTag tag(EntityTag tag, RequestExtDto itemRequest) {
+        tag.with(itemRequest.getId()).with(itemRequest.getItems().size());
+        for (ItemDto item : itemRequest.getItems()) {
+            tag.with(item.getId()).with(item.getName()).with(item.getDescription())
+                    .with(Boolean.TRUE.equals(item.getAvailable()) ? 1 : 0);
+        }
+        return tag;
     }
 }
\ No newline at end of file
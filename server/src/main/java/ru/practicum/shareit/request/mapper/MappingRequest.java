@@ -11,7 +11,7 @@ import java.util.Collections;
 public class MappingRequest {
     public Request mapToRequest(RequestDto requestDto) {
         String description = requestDto.getDescription();
-        return new Request(null, description, null, null);
+        return new Request(null, description, null, null, 0);
     }
 
     public RequestDto mapToRequestDto(Request request) {
@@ -7,12 +7,26 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.Request;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
-    @Query(value = "select * from requests r where r.requester_id <> ?1 order by r.created desc", nativeQuery = true)
-    List<Request> findAllExcludingRequestsWithRequesterId(long requesterId, Pageable page);
+    @Query("select r from Request as r where r.requester.id <> ?1 order by r.created desc, r.id desc")
+    List<Request> findPageExcludingRequesterId(long requesterId, Pageable page);
+
+    @Query("select r from Request as r where r.requester.id <> ?1" +
+            " and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) order by r.created desc, r.id desc")
+    List<Request> findPageExcludingRequesterId(long requesterId, LocalDateTime cursorCreated, long cursorId,
+                                               Pageable page);
+
+    @Query("select r from Request as r order by r.created desc, r.id desc")
+    List<Request> findLatest(Pageable page);
 
     List<Request> findAllByRequesterId(long requesterId, Sort sort);
+
+    @Query("select r.id from Request as r where r.id in ?1")
+    Set<Long> findAllIdsByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,270 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.MappingItem;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.RequestExtDto;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.PageCursor;
+import ru.practicum.shareit.util.TransactionUtils;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * The newest requests of all users with their items, newest first, bounded by capacity. Another user's view
+ * of the feed is the same window with their own requests skipped; a page that runs past the oldest request
+ * still held can't be answered here once older ones have been dropped.
+ *
+ * <p>The feed is node-local and only learns about requests and items saved through this node. When several
+ * nodes share the database it has to be disabled with shareit.requests.feed.enabled=false, and every page is
+ * then read from the database.
+ */
+@Slf4j
+@Component
+public class RequestFeed implements SmartInitializingSingleton {
+    private static final Comparator<Key> NEWEST_FIRST = Comparator
+            .comparing((Key key) -> key.created, Comparator.reverseOrder())
+            .thenComparing(key -> key.id, Comparator.reverseOrder());
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private final RequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final MappingItem mappingItem;
+    private final boolean enabled;
+    private final int capacity;
+    private final NavigableMap<Key, Entry> entries = new TreeMap<>(NEWEST_FIRST);
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean truncated;
+    private List<Runnable> changesDuringReload;
+
+    public RequestFeed(RequestRepository requestRepository, ItemRepository itemRepository, MappingItem mappingItem,
+                       @Value("${shareit.requests.feed.enabled:true}") boolean enabled,
+                       @Value("${shareit.requests.feed.capacity:10000}") int capacity) {
+        this.requestRepository = requestRepository;
+        this.itemRepository = itemRepository;
+        this.mappingItem = mappingItem;
+        this.enabled = enabled;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Replaces the feed with the newest requests in the database. Changes committed while they are being read
+     * may be missing from them, so those are collected meanwhile and applied again on top.
+     */
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            changesDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Request> requests = requestRepository.findLatest(PageRequest.of(0, capacity));
+        Map<Long, List<FeedItem>> items = new HashMap<>();
+        for (int from = 0; from < requests.size(); from += LOAD_BATCH_SIZE) {
+            Set<Long> requestIds = requests.subList(from, Math.min(from + LOAD_BATCH_SIZE, requests.size())).stream()
+                    .map(Request::getId)
+                    .collect(Collectors.toSet());
+            itemRepository.findAllByRequestIdIn(requestIds).stream()
+                    .sorted(Comparator.comparing(Item::getId))
+                    .map(item -> new FeedItem(item.getOwner().getId(), mappingItem.mapToItemDto(item)))
+                    .forEach(item -> items.computeIfAbsent(item.item.getRequestId(), id -> new ArrayList<>())
+                            .add(item));
+        }
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            entriesById.clear();
+            for (Request request : requests) {
+                Entry entry = new Entry(request);
+                entry.items = List.copyOf(items.getOrDefault(request.getId(), List.of()));
+                putEntry(entry);
+            }
+            truncated = requests.size() == capacity;
+            changesDuringReload.forEach(Runnable::run);
+            changesDuringReload = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Request feed has been loaded with " + requests.size() + " requests");
+    }
+
+    public void add(Request request) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = new Entry(request);
+        TransactionUtils.afterCommit(() -> change(() -> {
+            if (entriesById.containsKey(entry.key.id)) {
+                return;
+            }
+            putEntry(entry);
+            if (entries.size() > capacity) {
+                entriesById.remove(entries.pollLastEntry().getKey().id);
+                truncated = true;
+            }
+        }));
+    }
+
+    /**
+     * Adds the item to its request, or replaces it there after an update.
+     */
+    public void putItem(long ownerId, ItemDto item) {
+        if (!enabled || item.getRequestId() == null) {
+            return;
+        }
+        FeedItem feedItem = new FeedItem(ownerId, item);
+        TransactionUtils.afterCommit(() -> change(() -> {
+            Entry entry = entriesById.get(item.getRequestId());
+            if (entry == null) {
+                return;
+            }
+            List<FeedItem> items = new ArrayList<>(entry.items);
+            items.removeIf(existing -> existing.item.getId() == item.getId());
+            items.add(feedItem);
+            items.sort(Comparator.comparingLong(existing -> existing.item.getId()));
+            entry.items = List.copyOf(items);
+        }));
+    }
+
+    /**
+     * Returns the page of requests of other users after the cursor, or from the newest one if there is none,
+     * skipping the first skip of them, or nothing if the page reaches beyond the requests held.
+     */
+    public Optional<List<RequestExtDto>> findPage(long userId, PageCursor cursor, long skip, int size) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        List<RequestExtDto> page = new ArrayList<>(size);
+        lock.readLock().lock();
+        try {
+            long skipped = 0;
+            Map<Key, Entry> tail = cursor == null ? entries
+                    : entries.tailMap(new Key(cursor.getPosition(), cursor.getId()), false);
+            for (Entry entry : tail.values()) {
+                if (entry.requesterId == userId) {
+                    continue;
+                }
+                if (skipped < skip) {
+                    skipped++;
+                    continue;
+                }
+                page.add(entry.toRequestExtDto());
+                if (page.size() == size) {
+                    return Optional.of(page);
+                }
+            }
+            return truncated ? Optional.empty() : Optional.of(page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the requests and items of a deleted user, which the database deleted along with them. The feed
+     * may hold fewer requests than its capacity afterwards, but pages past its end still go to the database.
+     */
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long userId = event.getUserId();
+        change(() -> {
+            entries.values().removeIf(entry -> entry.requesterId == userId);
+            entriesById.values().removeIf(entry -> entry.requesterId == userId);
+            for (Entry entry : entries.values()) {
+                if (entry.items.stream().anyMatch(item -> item.ownerId == userId)) {
+                    entry.items = entry.items.stream()
+                            .filter(item -> item.ownerId != userId)
+                            .collect(Collectors.toUnmodifiableList());
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies a change to the feed, and once more after a reload that is reading the database right now.
+     */
+    private void change(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putEntry(Entry entry) {
+        entries.put(entry.key, entry);
+        entriesById.put(entry.key.id, entry);
+    }
+
+    private static class Key {
+        private final LocalDateTime created;
+        private final long id;
+
+        Key(LocalDateTime created, long id) {
+            this.created = created;
+            this.id = id;
+        }
+    }
+
+    private static class FeedItem {
+        private final long ownerId;
+        private final ItemDto item;
+
+        FeedItem(long ownerId, ItemDto item) {
+            this.ownerId = ownerId;
+            this.item = item;
+        }
+    }
+
+    private static class Entry {
+        private final Key key;
+        private final long requesterId;
+        private final String description;
+        private List<FeedItem> items = List.of();
+
+        Entry(Request request) {
+            this.key = new Key(request.getCreated(), request.getId());
+            this.requesterId = request.getRequester().getId();
+            this.description = request.getDescription();
+        }
+
+        RequestExtDto toRequestExtDto() {
+            return new RequestExtDto(key.id, description, key.created, items.stream()
+                    .map(item -> item.item)
+                    .collect(Collectors.toList()));
+        }
+    }
+}
@@ -10,7 +10,7 @@ public interface RequestService {
 
     List<RequestExtDto> getAllOwnRequests(long userId);
 
-    List<RequestExtDto> getAllOtherUserRequests(long userId, int from, int size);
+    List<RequestExtDto> getAllOtherUserRequests(long userId, int from, int size, String after);
 
     RequestExtDto getRequestById(long id, long userId);
 }
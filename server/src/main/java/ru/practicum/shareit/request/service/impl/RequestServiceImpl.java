@@ -2,7 +2,7 @@ package ru.practicum.shareit.request.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,11 +15,17 @@ import ru.practicum.shareit.request.dto.RequestExtDto;
 import ru.practicum.shareit.request.mapper.MappingRequest;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.RequestFeed;
 import ru.practicum.shareit.request.service.RequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.sql.SqlMonitored;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,6 +34,7 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@SqlMonitored
 @RequiredArgsConstructor
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
@@ -35,6 +42,7 @@ public class RequestServiceImpl implements RequestService {
     private final MappingItem mappingItem;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final RequestFeed requestFeed;
     private static final Sort SORT_BY_CREATED_DATE_DESC = Sort.by(Sort.Direction.DESC, "created");
 
     @Override
@@ -44,8 +52,10 @@ public class RequestServiceImpl implements RequestService {
                 .orElseThrow(() -> new ObjectNotFoundException("User with id = " + requesterId + " doesn't exist"));
         Request request = mappingRequest.mapToRequest(requestDto);
         request.setRequester(requester);
-        request.setCreated(LocalDateTime.now());
-        return mappingRequest.mapToRequestDto(requestRepository.save(request));
+        request.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        request = requestRepository.save(request);
+        requestFeed.add(request);
+        return mappingRequest.mapToRequestDto(request);
     }
 
     @Override
@@ -58,11 +68,13 @@ public class RequestServiceImpl implements RequestService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<RequestExtDto> getAllOtherUserRequests(long userId, int from, int size) {
-        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        List<Request> requests = requestRepository.findAllExcludingRequestsWithRequesterId(userId, page);
-        return addItemsIntoRequest(requests);
+    public List<RequestExtDto> getAllOtherUserRequests(long userId, int from, int size, String after) {
+        PageCursor cursor = PageCursor.parse(after, from);
+        return requestFeed.findPage(userId, cursor, from, size).orElseGet(() -> {
+            Pageable page = new OffsetPageRequest(from, size);
+            return addItemsIntoRequest(cursor == null ? requestRepository.findPageExcludingRequesterId(userId, page) :
+                    requestRepository.findPageExcludingRequesterId(userId, cursor.getPosition(), cursor.getId(), page));
+        });
     }
 
     @Override
@@ -85,7 +97,8 @@ public class RequestServiceImpl implements RequestService {
     private List<RequestExtDto> addItemsIntoRequest(List<Request> requests) {
         Map<Long, RequestExtDto> requestsWithoutItems = requests.stream()
                 .map(mappingRequest::mapToRequestExtDto)
-                .collect(Collectors.toMap(RequestExtDto::getId, Function.identity()));
+                .collect(Collectors.toMap(RequestExtDto::getId, Function.identity(), (first, second) -> first,
+                        LinkedHashMap::new));
 
         Map<Long, List<ItemDto>> items = getAllItemsByRequestIdIn(requestsWithoutItems.keySet()).stream()
                 .filter(item -> item.getRequestId() != null)
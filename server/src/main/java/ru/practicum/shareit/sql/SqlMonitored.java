@@ -0,0 +1,14 @@
+package ru.practicum.shareit.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records SQL statistics for every public method of the annotated bean under {@code shareit.sql.service.*}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlMonitored {
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.sql;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * SQL counters for one unit of work on the current thread. Scopes nest: every JDBC call counts towards all
+ * scopes open on the thread, so a service method and the HTTP request around it both see it.
+ *
+ * <pre>
+ * try (SqlScope scope = SqlScope.open()) {
+ *     itemService.getAllUserItems(ownerId, 0, 10);
+ *     assert scope.getStatements() &lt;= 3;
+ * }
+ * </pre>
+ */
+public final class SqlScope implements AutoCloseable {
+    private static final ThreadLocal<Deque<SqlScope>> ACTIVE = new ThreadLocal<>();
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+
+    private SqlScope() {
+    }
+
+    public static SqlScope open() {
+        Deque<SqlScope> scopes = ACTIVE.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            ACTIVE.set(scopes);
+        }
+        SqlScope scope = new SqlScope();
+        scopes.push(scope);
+        return scope;
+    }
+
+    static void recordStatement(long nanos) {
+        Deque<SqlScope> scopes = ACTIVE.get();
+        if (scopes != null) {
+            for (SqlScope scope : scopes) {
+                scope.statements++;
+                scope.jdbcNanos += nanos;
+            }
+        }
+    }
+
+    static void recordRow(long nanos) {
+        Deque<SqlScope> scopes = ACTIVE.get();
+        if (scopes != null) {
+            for (SqlScope scope : scopes) {
+                scope.rows++;
+                scope.jdbcNanos += nanos;
+            }
+        }
+    }
+
+    /**
+     * Number of statement executions; a JDBC batch counts as one.
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Time spent inside JDBC executing statements and fetching rows.
+     */
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    @Override
+    public void close() {
+        Deque<SqlScope> scopes = ACTIVE.get();
+        if (scopes != null) {
+            scopes.remove(this);
+            if (scopes.isEmpty()) {
+                ACTIVE.remove();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("statements=%d;rows=%d;time=%.3fms", statements, rows, jdbcNanos / 1_000_000.0);
+    }
+}
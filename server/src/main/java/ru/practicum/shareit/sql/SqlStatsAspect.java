@@ -0,0 +1,36 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs outside the transaction advice so that the flush on commit is counted against the service method.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.sql-stats.enabled", havingValue = "true")
+public class SqlStatsAspect {
+    private final SqlStatsMetrics metrics;
+
+    @Around("@within(ru.practicum.shareit.sql.SqlMonitored)")
+    public Object monitor(ProceedingJoinPoint joinPoint) throws Throwable {
+        SqlScope scope = SqlScope.open();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            scope.close();
+            metrics.record("shareit.sql.service", Tags.of(
+                    "class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                    "method", joinPoint.getSignature().getName()), scope);
+        }
+    }
+}
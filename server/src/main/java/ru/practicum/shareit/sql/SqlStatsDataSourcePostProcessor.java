@@ -0,0 +1,30 @@
+package ru.practicum.shareit.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source so that statements, fetched rows and JDBC time are recorded into the open {@link SqlScope}s.
+ * Every fetched row then passes through a proxy, so this is only on where shareit.sql-stats.enabled is set.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.sql-stats.enabled", havingValue = "true")
+public class SqlStatsDataSourcePostProcessor implements BeanPostProcessor {
+    private final SqlStatsListener listener = new SqlStatsListener();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                    .listener(listener)
+                    .methodListener(listener)
+                    .proxyResultSet()
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.sql-stats.enabled", havingValue = "true")
+public class SqlStatsFilter extends OncePerRequestFilter {
+    public static final String SCOPE_ATTRIBUTE = SqlScope.class.getName();
+    private final SqlStatsMetrics metrics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlScope scope = SqlScope.open();
+        request.setAttribute(SCOPE_ATTRIBUTE, scope);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.record("shareit.sql.http", Tags.of(
+                    "method", request.getMethod(),
+                    "uri", uri == null ? "UNKNOWN" : uri.toString(),
+                    "status", String.valueOf(response.getStatus())), scope);
+        }
+    }
+}
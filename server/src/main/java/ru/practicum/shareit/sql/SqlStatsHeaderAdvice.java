@@ -0,0 +1,40 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Debug aid: adds the SQL statistics of the request so far to every response with a body. Statements issued
+ * while the body is serialized are not included.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "shareit.sql-stats.header", havingValue = "true")
+public class SqlStatsHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String HEADER = "X-Sql-Stats";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            Object scope = ((ServletServerHttpRequest) request).getServletRequest()
+                    .getAttribute(SqlStatsFilter.SCOPE_ATTRIBUTE);
+            if (scope != null) {
+                response.getHeaders().set(HEADER, scope.toString());
+            }
+        }
+        return body;
+    }
+}
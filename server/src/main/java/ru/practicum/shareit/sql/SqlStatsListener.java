@@ -0,0 +1,47 @@
+package ru.practicum.shareit.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Times JDBC calls itself, as datasource-proxy only reports elapsed time in whole milliseconds.
+ */
+class SqlStatsListener implements QueryExecutionListener, MethodExecutionListener {
+    private static final String STARTED_AT = "sqlStatsStartedAt";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        SqlScope.recordStatement(startedAt == null ? 0 : System.nanoTime() - startedAt);
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        if (isNext(executionContext)) {
+            executionContext.addCustomValue(STARTED_AT, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (isNext(executionContext) && Boolean.TRUE.equals(executionContext.getResult())) {
+            Long startedAt = executionContext.getCustomValue(STARTED_AT, Long.class);
+            SqlScope.recordRow(startedAt == null ? 0 : System.nanoTime() - startedAt);
+        }
+    }
+
+    private static boolean isNext(MethodExecutionContext executionContext) {
+        return executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName());
+    }
+}
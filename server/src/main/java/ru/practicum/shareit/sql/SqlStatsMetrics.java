@@ -0,0 +1,32 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class SqlStatsMetrics {
+    private final MeterRegistry registry;
+
+    public void record(String prefix, Tags tags, SqlScope scope) {
+        DistributionSummary.builder(prefix + ".statements")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(registry)
+                .record(scope.getStatements());
+        DistributionSummary.builder(prefix + ".rows")
+                .baseUnit("rows")
+                .tags(tags)
+                .register(registry)
+                .record(scope.getRows());
+        Timer.builder(prefix + ".time")
+                .tags(tags)
+                .register(registry)
+                .record(scope.getJdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -11,9 +11,11 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.EntityTag;
 import java.util.List;
 import java.util.Map;
 
@@ -26,15 +28,25 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    public List<User> getAllUsers() {
+    public List<User> getAllUsers(WebRequest request) {
         log.info("Create request to find all users");
-        return userService.findAllUsers();
+        List<User> users = userService.findAllUsers();
+        EntityTag tag = new EntityTag().with(users.size());
+        users.forEach(user -> tag.with(user.getId()).with(user.getVersion()));
+        if (tag.checkNotModified(request)) {
+            return null;
+        }
+        return users;
     }
 
     @GetMapping("/{userId}")
-    public User getUserById(@PathVariable long userId) {
+    public User getUserById(@PathVariable long userId, WebRequest request) {
         log.info("Create request to find user with id = " + userId);
-        return userService.findUserById(userId);
+        User user = userService.findUserById(userId);
+        if (new EntityTag().with(user.getId()).with(user.getVersion()).checkNotModified(request)) {
+            return null;
+        }
+        return user;
     }
 
     @PostMapping
@@ -1,14 +1,20 @@
 package ru.practicum.shareit.user.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 import javax.persistence.Id;
 import javax.persistence.Column;
 import javax.persistence.GeneratedValue;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.GenerationType;
+import javax.persistence.Version;
+import javax.persistence.Cacheable;
 
 /**
  * TODO Sprint add-controllers.
@@ -16,15 +22,22 @@ import javax.persistence.GenerationType;
 @Data
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @AllArgsConstructor
 @NoArgsConstructor
 public class User {
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private long id;
     @Column(nullable = false)
     private String name;
     @Column(nullable = false)
     private String email;
+    @Version
+    @JsonIgnore
+    @Column(nullable = false)
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.user.repository;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migration V7: replaces the unnamed unique constraint V1 put on users.email with the unique index
+ * users_email_uq, so a duplicate email can be told from other integrity violations by name. Each database
+ * named the old constraint its own way, so it is looked up rather than written in SQL.
+ */
+@Component
+public class UsersEmailIndexMigration implements JavaMigration {
+    public static final String USERS_EMAIL_INDEX = "users_email_uq";
+    private static final String FIND_EMAIL_CONSTRAINTS = "select tc.constraint_name" +
+            " from information_schema.table_constraints tc" +
+            " join information_schema.key_column_usage kcu on kcu.constraint_schema = tc.constraint_schema" +
+            " and kcu.constraint_name = tc.constraint_name" +
+            " where tc.constraint_type = 'UNIQUE' and lower(tc.table_schema) = lower(?)" +
+            " and lower(tc.table_name) = 'users' and lower(kcu.column_name) = 'email'";
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("7");
+    }
+
+    @Override
+    public String getDescription() {
+        return "name users email index";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean isUndo() {
+        return false;
+    }
+
+    @Override
+    public boolean isBaselineMigration() {
+        return false;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        List<String> constraints = new ArrayList<>();
+        try (PreparedStatement find = connection.prepareStatement(FIND_EMAIL_CONSTRAINTS)) {
+            find.setString(1, connection.getSchema());
+            try (ResultSet resultSet = find.executeQuery()) {
+                while (resultSet.next()) {
+                    constraints.add(resultSet.getString(1));
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + USERS_EMAIL_INDEX + " ON users (email)");
+            for (String constraint : constraints) {
+                statement.execute("ALTER TABLE users DROP CONSTRAINT \"" + constraint.replace("\"", "\"\"") + "\"");
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Fixed-size Bloom filter of normalized user emails. A negative answer means no user has the email,
+ * so the uniqueness check can skip the database. Deleted emails are never removed from the filter,
+ * they only turn into false positives that fall back to the indexed lookup.
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter implements SmartInitializingSingleton {
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+
+    public EmailBloomFilter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                            @Value("${shareit.users.email-filter.enabled:true}") boolean enabled,
+                            @Value("${shareit.users.email-filter.expected-emails:1000000}") long expectedEmails,
+                            @Value("${shareit.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        long optimalBits = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Math.max(optimalBits, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * Math.log(2)));
+        this.bits = new AtomicLongArray(enabled ? (bitCount + Long.SIZE - 1) / Long.SIZE : 0);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        AtomicLong count = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                emails.forEach(email -> {
+                    add(email);
+                    count.incrementAndGet();
+                });
+            }
+        });
+        log.info("Email filter has been built with " + count.get() + " emails");
+    }
+
+    public void add(String email) {
+        if (!enabled) {
+            return;
+        }
+        long[] hashes = hash(email);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitIndex(hashes, i);
+            int word = bit / Long.SIZE;
+            long mask = 1L << (bit % Long.SIZE);
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String email) {
+        if (!enabled) {
+            return true;
+        }
+        long[] hashes = hash(email);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitIndex(hashes, i);
+            if ((bits.get(bit / Long.SIZE) & (1L << (bit % Long.SIZE))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bitIndex(long[] hashes, int i) {
+        return (int) Math.floorMod(hashes[0] + i * hashes[1], (long) bitCount);
+    }
+
+    private static long[] hash(String email) {
+        byte[] bytes = email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        long first = 0xcbf29ce484222325L;
+        long second = 0x84222325cbf29ce4L;
+        for (byte b : bytes) {
+            first = (first ^ (b & 0xff)) * 0x100000001b3L;
+            second = (second + (b & 0xff)) * 0xc6a4a7935bd1e995L;
+            second ^= second >>> 47;
+        }
+        return new long[]{first, second | 1};
+    }
+}
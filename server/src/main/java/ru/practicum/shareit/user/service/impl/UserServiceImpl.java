@@ -2,18 +2,20 @@ package ru.practicum.shareit.user.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ObjectConflictException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.mapper.MappingUser;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.EmailBloomFilter;
 import ru.practicum.shareit.user.service.UserService;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -21,6 +23,8 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final MappingUser mappingUser;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmailBloomFilter emailBloomFilter;
 
     @Override
     @Transactional(readOnly = true)
@@ -38,7 +42,9 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public User addUser(UserDto userDto) {
-        return userRepository.save(mappingUser.mapToUser(userDto));
+        User user = userRepository.save(mappingUser.mapToUser(userDto));
+        emailBloomFilter.add(user.getEmail());
+        return user;
     }
 
     @Override
@@ -54,6 +60,7 @@ public class UserServiceImpl implements UserService {
                 if (!fields.get(field).equals(user.getEmail())) {
                     checkEmail(fields.get(field));
                     user.setEmail(fields.get(field));
+                    emailBloomFilter.add(user.getEmail());
                 }
             }
         }
@@ -65,15 +72,13 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUser(long id) {
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 
     @Override
     @Transactional(readOnly = true)
     public void checkEmail(String email) {
-        List<String> emails = userRepository.findAll().stream()
-                .map(User::getEmail)
-                .collect(Collectors.toList());
-        if (emails.contains(email)) {
+        if (emailBloomFilter.mightContain(email) && userRepository.existsByEmail(email)) {
             log.debug("Email address: " + email + "is already using");
             throw new ObjectConflictException("User with the same email address is already exists");
         }
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Publishes the hit, miss, put and eviction counters of the second-level cache regions as cache.* meters.
+ * They are read from the statistics Caffeine keeps per cache, so Hibernate statistics can stay off.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheRegionMetrics implements SmartInitializingSingleton {
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry registry;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache()
+                .getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory)) {
+            return;
+        }
+        CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+        for (String name : cacheManager.getCacheNames()) {
+            JCacheMetrics.monitor(registry, cacheManager.getCache(name));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Adds content hash ETags to GET responses and answers a matching If-None-Match with 304 and no body,
+ * so the gateway can revalidate its cached responses cheaply. Only endpoints without an {@link EntityTag} of
+ * their own go through it; the others, and streamed responses, disable content caching for their request.
+ */
+@Component
+public class EtagFilter extends ShallowEtagHeaderFilter {
+}
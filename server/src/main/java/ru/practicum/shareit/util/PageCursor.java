@@ -0,0 +1,45 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.ValidationException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset position of a list sorted by (position desc, id desc), passed by clients as "position,id". The first
+ * page has no cursor and is read without the keyset predicate.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+    private final LocalDateTime position;
+    private final long id;
+
+    /**
+     * Returns the cursor a page starts after, or null if the page is addressed by its offset alone. An offset
+     * counts from the start of the list, so it can't be combined with a cursor.
+     */
+    public static PageCursor parse(String after, int from) {
+        if (after == null) {
+            return null;
+        }
+        if (from > 0) {
+            throw new ValidationException("Parameter from can't be combined with after");
+        }
+        return parse(after);
+    }
+
+    public static PageCursor parse(String token) {
+        int separator = token.lastIndexOf(',');
+        if (separator < 0) {
+            throw new ValidationException("Invalid cursor: " + token);
+        }
+        try {
+            return new PageCursor(LocalDateTime.parse(token.substring(0, separator).trim()),
+                    Long.parseLong(token.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ValidationException("Invalid cursor: " + token, e);
+        }
+    }
+}
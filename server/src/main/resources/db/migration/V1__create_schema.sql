@@ -1,40 +1,48 @@
-DROP TABLE IF EXISTS users, items, booking, requests, comments;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name varchar(50) NOT NULL,
-    email varchar(150) NOT NULL UNIQUE
+    email varchar(150) NOT NULL UNIQUE,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     description varchar(300) NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE,
-    requester_id BIGINT REFERENCES users(id) ON DELETE CASCADE NOT NULL
+    requester_id BIGINT REFERENCES users(id) ON DELETE CASCADE NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name varchar(150) NOT NULL,
     description varchar(250),
     is_available bool NOT NULL,
     owner_id BIGINT REFERENCES users(id) ON DELETE CASCADE NOT NULL,
-    request_id BIGINT REFERENCES requests(id)
+    request_id BIGINT REFERENCES requests(id),
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS booking (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE,
     end_date TIMESTAMP WITHOUT TIME ZONE,
     item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
     booker_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
-    status varchar(50) NOT NULL
+    status varchar(50) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     text varchar(500) NOT NULL,
     item_id BIGINT REFERENCES items(id) NOT NULL,
     author_id BIGINT REFERENCES users(id) NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE
-);
\ No newline at end of file
+);
@@ -0,0 +1,10 @@
+-- Bookings of a booker, newest first, paged by (start_date, id) cursor.
+CREATE INDEX IF NOT EXISTS booking_booker_start_idx ON booking (booker_id, start_date DESC, id DESC);
+-- Bookings of one item by start: last/next booking, busy intervals, owner pages joined through items.
+CREATE INDEX IF NOT EXISTS booking_item_start_idx ON booking (item_id, start_date, id);
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+CREATE INDEX IF NOT EXISTS comments_author_idx ON comments (author_id);
+CREATE INDEX IF NOT EXISTS requests_requester_created_idx ON requests (requester_id, created DESC);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC);
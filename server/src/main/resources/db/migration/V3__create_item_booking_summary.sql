@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP WITHOUT TIME ZONE,
+    last_end TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    next_end TIMESTAMP WITHOUT TIME ZONE,
+    waiting_count BIGINT NOT NULL DEFAULT 0,
+    approved_count BIGINT NOT NULL DEFAULT 0,
+    rejected_count BIGINT NOT NULL DEFAULT 0,
+    canceled_count BIGINT NOT NULL DEFAULT 0,
+    refresh_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_refresh_idx ON item_booking_summary (refresh_at);
+
+-- Items booked before this migration start out stale and are filled in by the scheduled refresh.
+INSERT INTO item_booking_summary (item_id, refresh_at)
+SELECT DISTINCT item_id, TIMESTAMP '1970-01-01 00:00:00' FROM booking;
@@ -0,0 +1,3 @@
+-- Comments of one item, newest first, paged by (created, id) cursor.
+DROP INDEX IF EXISTS comments_item_idx;
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC, id DESC);
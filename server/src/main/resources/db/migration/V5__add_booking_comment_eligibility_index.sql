@@ -0,0 +1,2 @@
+-- Ended bookings of a booker for one item: may the booker comment on the item.
+CREATE INDEX IF NOT EXISTS booking_booker_item_status_end_idx ON booking (booker_id, item_id, status, end_date);
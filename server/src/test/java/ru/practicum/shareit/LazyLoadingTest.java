@@ -0,0 +1,101 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Associations are lazy and there is no session outside a transaction, so whatever the services hand out has
+ * to be fully loaded before their transactions end.
+ */
+@SpringBootTest
+class LazyLoadingTest {
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long bookingId;
+    private long requestId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.addUser(new UserDto("owner", UUID.randomUUID() + "@shareit.ru")).getId();
+        bookerId = userService.addUser(new UserDto("booker", UUID.randomUUID() + "@shareit.ru")).getId();
+        requestId = requestService.createRequest(bookerId, new RequestDto(null, "Need a drill", null)).getId();
+        itemId = itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, requestId, null))
+                .getId();
+        LocalDateTime now = LocalDateTime.now();
+        bookingId = bookingService.createBooking(bookerId, new BookingDto(itemId, now.minusDays(2),
+                now.minusDays(1))).getId();
+        bookingService.confirmBooking(ownerId, "true", bookingId);
+        itemService.addComment(bookerId, itemId, new CommentDto(null, "Works fine", null, null, null));
+    }
+
+    @Test
+    void openSessionInViewIsDisabled() {
+        assertFalse(openInView);
+    }
+
+    @Test
+    void associationsAreNotLoadedOutsideTransaction() {
+        List<Item> items = itemRepository.findAllAvailableAfterId(itemId - 1, PageRequest.of(0, 1));
+
+        assertThrows(LazyInitializationException.class, () -> items.get(0).getOwner().getName());
+    }
+
+    @Test
+    void serviceResultsSerializeOutsideTransaction() {
+        assertSerializes(bookingService.getBookingById(bookerId, bookingId));
+        assertSerializes(bookingService.createBooking(bookerId, new BookingDto(itemId,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2))));
+        assertSerializes(bookingService.getAllUserBookings(bookerId, "ALL", 0, 10, null));
+        assertSerializes(bookingService.getAllItemOwnerBookings(ownerId, "ALL", 0, 10, null));
+        assertSerializes(itemService.getItemById(ownerId, itemId));
+        assertSerializes(itemService.getAllUserItems(ownerId, 0, 10));
+        assertSerializes(itemService.getItemComments(itemId, 0, 10, null));
+        assertSerializes(requestService.getRequestById(requestId, ownerId));
+        assertSerializes(requestService.getAllOwnRequests(bookerId));
+        assertSerializes(requestService.getAllOtherUserRequests(ownerId, 0, 10, null));
+        assertSerializes(userService.findUserById(ownerId));
+    }
+
+    private void assertSerializes(Object result) {
+        assertDoesNotThrow(() -> objectMapper.writeValueAsString(result));
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the lookups the indexes of the migrations were added for are planned through those indexes.
+ * H2 indexes foreign keys on its own, and where such an index serves a lookup as well as ours it may pick
+ * either, so those lookups only have to avoid a table scan.
+ */
+@SpringBootTest
+class SchemaPlanTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bookerPageUsesBookerStartIndex() {
+        assertThat(explain("select id from booking where booker_id = 1" +
+                " and (start_date < now() or (start_date = now() and id < 10))" +
+                " order by start_date desc, id desc limit 10"))
+                .contains("BOOKING_BOOKER_START_IDX");
+    }
+
+    @Test
+    void lastBookingOfItemUsesItemStartIndex() {
+        assertThat(explain("select id from booking where item_id = 1 and start_date < now()" +
+                " order by start_date desc, id desc limit 1"))
+                .contains("BOOKING_ITEM_START_IDX");
+    }
+
+    @Test
+    void ownerItemsUseOwnerIndex() {
+        assertThat(explain("select id from items where owner_id = 1 order by id limit 10"))
+                .contains(": OWNER_ID = ");
+    }
+
+    @Test
+    void commentPageUsesItemCreatedIndex() {
+        assertThat(explain("select id from comments where item_id = 1" +
+                " and (created < now() or (created = now() and id < 10))" +
+                " order by created desc, id desc limit 10"))
+                .contains("COMMENTS_ITEM_CREATED_IDX");
+    }
+
+    @Test
+    void ownRequestsUseRequesterCreatedIndex() {
+        assertThat(explain("select id from requests where requester_id = 1 order by created desc"))
+                .contains("REQUESTS_REQUESTER_CREATED_IDX");
+    }
+
+    @Test
+    void otherRequestsUseCreatedIndex() {
+        assertThat(explain("select id from requests where requester_id <> 1 order by created desc limit 10"))
+                .contains("REQUESTS_CREATED_IDX");
+    }
+
+    @Test
+    void commentEligibilityUsesBookerItemStatusEndIndex() {
+        assertThat(explain("select id from booking where booker_id = 1 and item_id = 2" +
+                " and status = 'APPROVED' and end_date < now() limit 1"))
+                .contains("BOOKING_BOOKER_ITEM_STATUS_END_IDX");
+    }
+
+    @Test
+    void emailLookupUsesEmailIndex() {
+        assertThat(explain("select id from users where email = 'user@shareit.ru'"))
+                .contains("USERS_EMAIL_UQ");
+    }
+
+    private String explain(String sql) {
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+        assertThat(plan).doesNotContain("tableScan");
+        return plan;
+    }
+}
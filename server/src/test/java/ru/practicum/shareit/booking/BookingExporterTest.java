@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingExporterTest {
+    private static final String ITEM_NAME = "Drill, \"pro\"\nedition";
+    private static final String BOOKER_NAME = "Smith, John";
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    private long ownerId;
+    private long otherOwnerId;
+    private long bookerId;
+    private long itemId;
+    private long ownerBookingId;
+    private long otherBookingId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = addUser("owner");
+        otherOwnerId = addUser("other owner");
+        bookerId = addUser(BOOKER_NAME);
+        itemId = itemService.addItem(ownerId, new ItemDto(0, ITEM_NAME, "Cordless drill", true, null, null)).getId();
+        long otherItemId = itemService.addItem(otherOwnerId, new ItemDto(0, "Saw", "Hand saw", true, null, null))
+                .getId();
+        start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        ownerBookingId = bookingService.createBooking(bookerId, new BookingDto(itemId, start, start.plusHours(1)))
+                .getId();
+        otherBookingId = bookingService.createBooking(bookerId,
+                new BookingDto(otherItemId, start.plusDays(1), start.plusDays(1).plusHours(1))).getId();
+    }
+
+    @Test
+    void exportsBookerBookingsAsNdjson() throws Exception {
+        String body = mockMvc.perform(export("/bookings/export", bookerId).param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> bookings = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            bookings.add(objectMapper.readTree(line));
+        }
+
+        assertEquals(List.of(ownerBookingId, otherBookingId), bookings.stream()
+                .map(booking -> booking.get("id").asLong())
+                .sorted()
+                .collect(Collectors.toList()));
+        JsonNode booking = bookings.stream()
+                .filter(node -> node.get("id").asLong() == ownerBookingId)
+                .findFirst().orElseThrow();
+        assertEquals(ITEM_NAME, booking.get("item").get("name").asText());
+        assertEquals(BOOKER_NAME, booking.get("booker").get("name").asText());
+        assertEquals("WAITING", booking.get("status").asText());
+    }
+
+    @Test
+    void ndjsonIsTheDefaultFormat() throws Exception {
+        mockMvc.perform(export("/bookings/owner/export", ownerId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"));
+    }
+
+    @Test
+    void exportsOwnerBookingsAsQuotedCsv() throws Exception {
+        String body = mockMvc.perform(export("/bookings/owner/export", ownerId).param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("id,start,end,status,itemId,itemName,ownerId,bookerId,bookerName\n"
+                + ownerBookingId + "," + start + ":00," + start.plusHours(1) + ":00,WAITING," + itemId + ","
+                + "\"Drill, \"\"pro\"\"\nedition\"," + ownerId + "," + bookerId + ",\"Smith, John\"\n", body);
+    }
+
+    @Test
+    void ownerAndBookerExportsAreSelectedSeparately() throws Exception {
+        String ownerExport = mockMvc.perform(export("/bookings/owner/export", otherOwnerId).param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String bookerExport = mockMvc.perform(export("/bookings/export", ownerId).param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String bookerOwnExport = mockMvc.perform(export("/bookings/owner/export", bookerId).param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(ownerExport.split("\n")[1].startsWith(otherBookingId + ","));
+        assertEquals(2, ownerExport.split("\n").length);
+        assertEquals(1, bookerExport.split("\n").length);
+        assertEquals(1, bookerOwnExport.split("\n").length);
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        mockMvc.perform(export("/bookings/export", bookerId).param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownUserIsNotFound() throws Exception {
+        mockMvc.perform(export("/bookings/export", Long.MAX_VALUE).param("format", "csv"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(export("/bookings/owner/export", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(new UserDto(name, UUID.randomUUID() + "@shareit.ru")).getId();
+    }
+
+    private static MockHttpServletRequestBuilder export(String path, long userId) {
+        return get(path).header("X-Sharer-User-Id", userId);
+    }
+}
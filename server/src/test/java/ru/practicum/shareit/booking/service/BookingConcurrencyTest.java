@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Books the next free slot of a few items from many threads at once, so threads that pick the same item race
+ * for the same slot. However the races go, no two active bookings of an item may overlap in the end.
+ */
+@SpringBootTest
+class BookingConcurrencyTest {
+    private static final String OVERLAPS = "select count(*) from (" +
+            "select start_date, max(end_date) over (partition by item_id order by start_date, id" +
+            " rows between unbounded preceding and 1 preceding) as previous_end" +
+            " from booking where status in ('WAITING', 'APPROVED') and item_id in (%s)" +
+            ") t where t.previous_end >= t.start_date";
+    private static final int THREADS = 8;
+    private static final int ITEMS = 4;
+    private static final int ATTEMPTS = 400;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentBookingsOfItemNeverOverlap() throws Exception {
+        long ownerId = userService.addUser(new UserDto("owner", UUID.randomUUID() + "@shareit.ru")).getId();
+        long bookerId = userService.addUser(new UserDto("booker", UUID.randomUUID() + "@shareit.ru")).getId();
+        long[] itemIds = new long[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds[i] = itemService.addItem(ownerId, new ItemDto(0, "Item " + i, "Description of item " + i,
+                    true, null, null)).getId();
+        }
+        AtomicLongArray nextSlots = new AtomicLongArray(ITEMS);
+        LocalDateTime firstSlot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            attempts.add(() -> {
+                int item = ThreadLocalRandom.current().nextInt(ITEMS);
+                long slot = nextSlots.get(item);
+                LocalDateTime start = firstSlot.plusHours(slot);
+                try {
+                    bookingService.createBooking(bookerId, new BookingDto(itemIds[item], start,
+                            start.plusMinutes(30)));
+                    return true;
+                } catch (ValidationException e) {
+                    return false;
+                } finally {
+                    nextSlots.compareAndSet(item, slot, slot + 1);
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long booked = 0;
+        try {
+            for (Future<Boolean> attempt : executor.invokeAll(attempts)) {
+                booked += attempt.get() ? 1 : 0;
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        String itemIdList = LongStream.of(itemIds).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        assertTrue(booked > 0);
+        assertEquals(0, jdbcTemplate.queryForObject(String.format(OVERLAPS, itemIdList), Long.class));
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The same races with the item row locked for update and overlaps checked in the booking table.
+ */
+@SpringBootTest(properties = "shareit.bookings.lock.database=true")
+class BookingDatabaseLockConcurrencyTest extends BookingConcurrencyTest {
+}
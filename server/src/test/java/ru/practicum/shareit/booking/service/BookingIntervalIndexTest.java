@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+    private static final long ITEM_ID = 1;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private final LocalDateTime end = start.plusHours(1);
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookingIntervalIndex(bookingRepository, 100);
+    }
+
+    @Test
+    void keepsBookingCommittedWhileItemIsLoading() throws Exception {
+        blockLoad(List.of());
+        CompletableFuture<Boolean> firstCheck = CompletableFuture.supplyAsync(() ->
+                index.isBusy(ITEM_ID, start.plusDays(1), end.plusDays(1)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Thread add = new Thread(() -> index.add(ITEM_ID, 10, start, end));
+        add.start();
+        awaitBlocked(add);
+        loaded.countDown();
+        assertFalse(firstCheck.get(5, TimeUnit.SECONDS));
+        add.join(5000);
+
+        assertTrue(index.isBusy(ITEM_ID, start.plusMinutes(30), end.plusMinutes(30)));
+    }
+
+    @Test
+    void dropsBookingRejectedWhileItemIsLoading() throws Exception {
+        blockLoad(List.of(new BookingShortDto(10, 2, start, end)));
+        CompletableFuture<Boolean> firstCheck = CompletableFuture.supplyAsync(() ->
+                index.isBusy(ITEM_ID, start.plusDays(1), end.plusDays(1)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Thread remove = new Thread(() -> index.remove(ITEM_ID, 10));
+        remove.start();
+        awaitBlocked(remove);
+        loaded.countDown();
+        assertFalse(firstCheck.get(5, TimeUnit.SECONDS));
+        remove.join(5000);
+
+        assertFalse(index.isBusy(ITEM_ID, start, end));
+    }
+
+    @Test
+    void ignoresChangesToItemsThatAreNotLoaded() {
+        index.add(ITEM_ID, 10, start, end);
+        when(bookingRepository.findAllIntervalsByItemId(eq(ITEM_ID), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        assertFalse(index.isBusy(ITEM_ID, start, end));
+    }
+
+    @Test
+    void checksSlotsBeforeHorizonInDatabase() {
+        LocalDateTime past = LocalDateTime.now().minusDays(2);
+        when(bookingRepository.findAllIntervalsByItemId(eq(ITEM_ID), anyCollection(), any()))
+                .thenReturn(List.of());
+        when(bookingRepository.existsOverlapping(ITEM_ID, BookingIntervalIndex.ACTIVE_STATUSES, past,
+                past.plusHours(1))).thenReturn(true);
+
+        assertTrue(index.isBusy(ITEM_ID, past, past.plusHours(1)));
+        assertFalse(index.isBusy(ITEM_ID, start, end));
+        verify(bookingRepository, never()).existsOverlapping(anyLong(), anyCollection(), eq(start), eq(end));
+    }
+
+    @Test
+    void ignoresBookingsEndedBeforeHorizon() {
+        when(bookingRepository.findAllIntervalsByItemId(eq(ITEM_ID), anyCollection(), any()))
+                .thenReturn(List.of());
+        assertFalse(index.isBusy(ITEM_ID, start, end));
+        LocalDateTime past = LocalDateTime.now().minusDays(2);
+        index.add(ITEM_ID, 10, past, past.plusHours(1));
+        index.add(ITEM_ID, 11, past, end.plusDays(1));
+
+        assertTrue(index.isBusy(ITEM_ID, start, end));
+    }
+
+    @Test
+    void findsOverlapsNextToLongBooking() {
+        LocalDateTime longStart = start.plusDays(10);
+        LocalDateTime longEnd = start.plusDays(40);
+        when(bookingRepository.findAllIntervalsByItemId(eq(ITEM_ID), anyCollection(), any()))
+                .thenReturn(List.of(new BookingShortDto(10, 2, start, end),
+                        new BookingShortDto(11, 2, longStart, longEnd)));
+
+        assertTrue(index.isBusy(ITEM_ID, longStart.plusDays(5), longStart.plusDays(6)));
+        assertTrue(index.isBusy(ITEM_ID, longEnd, longEnd.plusHours(1)));
+        assertTrue(index.isBusy(ITEM_ID, start.plusDays(2), longStart));
+        assertTrue(index.isBusy(ITEM_ID, start.minusHours(1), longEnd.plusDays(1)));
+        assertTrue(index.isBusy(ITEM_ID, start.minusHours(1), start));
+        assertFalse(index.isBusy(ITEM_ID, end.plusHours(1), longStart.minusHours(1)));
+        assertFalse(index.isBusy(ITEM_ID, longEnd.plusHours(1), longEnd.plusDays(1)));
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.BLOCKED) {
+            assertTrue(System.nanoTime() < deadline, "Thread didn't wait for the load");
+            Thread.sleep(1);
+        }
+    }
+
+    private void blockLoad(List<BookingShortDto> bookings) {
+        when(bookingRepository.findAllIntervalsByItemId(eq(ITEM_ID), anyCollection(), any())).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(loaded.await(5, TimeUnit.SECONDS));
+            return bookings;
+        });
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.sql.SqlScope;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingServiceImplTest {
+    /**
+     * Insert of the booking, then the summary change: lock of the item row, read of the summary and its update.
+     * The booker and the item come from the second-level cache, and every 50th insert also fetches the next id
+     * block.
+     */
+    private static final int BOOKING_STATEMENTS = 4;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void bookingCreationTakesFixedNumberOfStatements() {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long itemId = itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, null, null))
+                .getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.createBooking(bookerId, new BookingDto(itemId, start, start.plusHours(1)));
+
+        int[] statements = new int[3];
+        for (int i = 0; i < statements.length; i++) {
+            LocalDateTime slot = start.plusDays(i + 1);
+            try (SqlScope scope = SqlScope.open()) {
+                bookingService.createBooking(bookerId, new BookingDto(itemId, slot, slot.plusHours(1)));
+                statements[i] = scope.getStatements();
+            }
+        }
+        assertEquals(BOOKING_STATEMENTS, Arrays.stream(statements).min().orElseThrow());
+        assertTrue(Arrays.stream(statements).max().orElseThrow() <= BOOKING_STATEMENTS + 1,
+                "Booking creation took " + Arrays.toString(statements) + " statements");
+    }
+
+    @Test
+    void confirmationApprovesOrRejectsWaitingBooking() {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long itemId = addItem(ownerId);
+        long approvedId = addBooking(bookerId, itemId, 1);
+        long rejectedId = addBooking(bookerId, itemId, 2);
+
+        assertEquals(Status.APPROVED, bookingService.confirmBooking(ownerId, "true", approvedId).getStatus());
+        assertEquals(Status.REJECTED, bookingService.confirmBooking(ownerId, "FALSE", rejectedId).getStatus());
+        assertEquals(Status.APPROVED, bookingService.getBookingById(bookerId, approvedId).getStatus());
+        assertEquals(Status.REJECTED, bookingService.getBookingById(bookerId, rejectedId).getStatus());
+    }
+
+    @Test
+    void confirmedBookingCantBeConfirmedAgain() {
+        long ownerId = addUser("owner");
+        long bookingId = addBooking(addUser("booker"), addItem(ownerId), 1);
+        bookingService.confirmBooking(ownerId, "true", bookingId);
+
+        assertThrows(ValidationException.class, () -> bookingService.confirmBooking(ownerId, "false", bookingId));
+        assertEquals(Status.APPROVED, bookingService.getBookingById(ownerId, bookingId).getStatus());
+    }
+
+    @Test
+    void onlyOwnerConfirmsBooking() {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long bookingId = addBooking(bookerId, addItem(ownerId), 1);
+
+        assertThrows(ObjectNotFoundException.class, () -> bookingService.confirmBooking(bookerId, "true", bookingId));
+        assertEquals(Status.WAITING, bookingService.getBookingById(ownerId, bookingId).getStatus());
+    }
+
+    @Test
+    void missingBookingIsNotFound() {
+        assertThrows(ObjectNotFoundException.class, () -> bookingService.confirmBooking(addUser("owner"), "true",
+                Long.MAX_VALUE));
+    }
+
+    @Test
+    void unknownApprovalIsRejected() {
+        long ownerId = addUser("owner");
+        long bookingId = addBooking(addUser("booker"), addItem(ownerId), 1);
+
+        assertThrows(ValidationException.class, () -> bookingService.confirmBooking(ownerId, "yes", bookingId));
+        assertEquals(Status.WAITING, bookingService.getBookingById(ownerId, bookingId).getStatus());
+    }
+
+    @Test
+    void pageAfterCursorContinuesFirstPage() {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long itemId = addItem(ownerId);
+        List<Long> bookingIds = List.of(addBooking(bookerId, itemId, 3), addBooking(bookerId, itemId, 2),
+                addBooking(bookerId, itemId, 1));
+
+        List<BookingOutDto> first = bookingService.getAllUserBookings(bookerId, "ALL", 0, 2, null);
+        BookingOutDto last = first.get(first.size() - 1);
+        List<BookingOutDto> second = bookingService.getAllItemOwnerBookings(ownerId, "FUTURE", 0, 2,
+                last.getStart() + "," + last.getId());
+
+        assertEquals(bookingIds, Stream.concat(first.stream(), second.stream())
+                .map(BookingOutDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void offsetCantBeCombinedWithCursor() {
+        long bookerId = addUser("booker");
+
+        assertThrows(ValidationException.class, () -> bookingService.getAllUserBookings(bookerId, "ALL", 1, 2,
+                LocalDateTime.now() + ",1"));
+    }
+
+    private long addItem(long ownerId) {
+        return itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, null, null)).getId();
+    }
+
+    private long addBooking(long bookerId, long itemId, int daysAhead) {
+        LocalDateTime start = LocalDateTime.now().plusDays(daysAhead);
+        return bookingService.createBooking(bookerId, new BookingDto(itemId, start, start.plusHours(1))).getId();
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(new UserDto(name, UUID.randomUUID() + "@shareit.ru")).getId();
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.items.bulk.batch-size=2")
+@AutoConfigureMockMvc
+class ItemBulkImporterTest {
+    private static final String DRILL = "{\"item\": {\"name\": \"Drill\", \"description\": \"Cordless\", \"available\": true}}";
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    private long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.addUser(new UserDto("owner", UUID.randomUUID() + "@shareit.ru")).getId();
+    }
+
+    @Test
+    void malformedLineIsRejected() throws Exception {
+        List<JsonNode> results = importItems("{\"item\": ", "[1, 2]");
+
+        assertEquals(List.of(1L, 2L), lines(results));
+        for (JsonNode result : results) {
+            assertEquals(400, result.get("status").asInt());
+            assertEquals("Line isn't a valid item", result.get("error").asText());
+        }
+    }
+
+    @Test
+    void invalidItemIsRejected() throws Exception {
+        List<JsonNode> results = importItems("{\"item\": {\"name\": \" \", \"description\": \"Cordless\"," +
+                " \"available\": true}}");
+
+        assertEquals(400, results.get(0).get("status").asInt());
+        assertEquals("Item name can't be blank", results.get(0).get("error").asText());
+    }
+
+    @Test
+    void itemsAcrossBatchesAreAllAdded() throws Exception {
+        List<JsonNode> results = importItems(DRILL, DRILL, DRILL, DRILL, DRILL);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), lines(results));
+        assertEquals(5, results.stream()
+                .filter(result -> result.get("status").asInt() == 200)
+                .map(result -> result.get("item").get("id").asLong())
+                .distinct()
+                .count());
+    }
+
+    @Test
+    void resultsFollowInputOrder() throws Exception {
+        List<JsonNode> results = importItems(DRILL, "garbage", DRILL, "", "{\"item\": {\"name\": \"Saw\"}}", DRILL);
+
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L), lines(results));
+        assertEquals(List.of(200, 400, 200, 400, 200), results.stream()
+                .map(result -> result.get("status").asInt())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void lineFieldOfUploadIsIgnored() throws Exception {
+        List<JsonNode> results = importItems("garbage", "{\"line\": 1, \"item\": {\"name\": \"Drill\"," +
+                " \"description\": \"Cordless\", \"available\": true}}");
+
+        assertEquals(List.of(1L, 2L), lines(results));
+    }
+
+    private List<JsonNode> importItems(String... lines) throws Exception {
+        String body = mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(ItemBulkImporter.NDJSON)
+                        .content(String.join("\n", lines)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private static List<Long> lines(List<JsonNode> results) {
+        return results.stream()
+                .map(result -> result.get("line").asLong())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.sql.SqlScope;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CommentEligibilityTest {
+    @Autowired
+    private CommentEligibility commentEligibility;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = addUser("owner");
+        bookerId = addUser("booker");
+        itemId = itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, null, null)).getId();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void endedApprovedBookingMakesEligible() {
+        addBooking(now.minusDays(2), now.minusDays(1), "true");
+
+        assertTrue(commentEligibility.isEligible(bookerId, itemId));
+        assertDoesNotThrow(() -> itemService.addComment(bookerId, itemId,
+                new CommentDto(null, "Works fine", null, null, null)));
+    }
+
+    @Test
+    void currentAndFutureBookingsDoNotMakeEligible() {
+        addBooking(now.minusHours(1), now.plusHours(1), "true");
+        addBooking(now.plusDays(1), now.plusDays(2), "true");
+
+        assertFalse(commentEligibility.isEligible(bookerId, itemId));
+        assertThrows(ValidationException.class, () -> itemService.addComment(bookerId, itemId,
+                new CommentDto(null, "Works fine", null, null, null)));
+    }
+
+    @Test
+    void rejectedBookingDoesNotMakeEligible() {
+        addBooking(now.minusDays(2), now.minusDays(1), "false");
+
+        assertFalse(commentEligibility.isEligible(bookerId, itemId));
+    }
+
+    @Test
+    void otherUsersBookingDoesNotMakeEligible() {
+        addBooking(now.minusDays(2), now.minusDays(1), "true");
+
+        assertFalse(commentEligibility.isEligible(addUser("stranger"), itemId));
+    }
+
+    @Test
+    void negativeAnswerIsNotCached() {
+        long bookingId = bookingService.createBooking(bookerId, new BookingDto(itemId, now.minusDays(2),
+                now.minusDays(1))).getId();
+        assertFalse(commentEligibility.isEligible(bookerId, itemId));
+
+        bookingService.confirmBooking(ownerId, "true", bookingId);
+
+        assertTrue(commentEligibility.isEligible(bookerId, itemId));
+    }
+
+    @Test
+    void positiveAnswerIsCached() {
+        addBooking(now.minusDays(2), now.minusDays(1), "true");
+        assertTrue(commentEligibility.isEligible(bookerId, itemId));
+
+        try (SqlScope scope = SqlScope.open()) {
+            assertTrue(commentEligibility.isEligible(bookerId, itemId));
+            assertEquals(0, scope.getStatements());
+        }
+    }
+
+    private void addBooking(LocalDateTime start, LocalDateTime end, String approved) {
+        long bookingId = bookingService.createBooking(bookerId, new BookingDto(itemId, start, end)).getId();
+        bookingService.confirmBooking(ownerId, approved, bookingId);
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(new UserDto(name, UUID.randomUUID() + "@shareit.ru")).getId();
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemBookingSummaryStoreTest {
+    @Autowired
+    private ItemBookingSummaryStore summaryStore;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentChangesOfSameSummaryAreSerialized() throws Exception {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long itemId = itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, null, null))
+                .getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        CountDownLatch added = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    addBooking(itemId, bookerId, start);
+                    added.countDown();
+                    await(release);
+                }));
+        assertTrue(added.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> addBooking(itemId, bookerId, start.plusDays(1))));
+        Thread.sleep(300);
+        assertFalse(second.isDone());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, summaryRepository.findById(itemId).orElseThrow().getWaitingCount());
+    }
+
+    @Test
+    void bookingChangesGiveSameSummaryAsRefresh() {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long itemId = itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, null, null))
+                .getId();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        createBooking(bookerId, itemId, now.minusDays(4), now.minusDays(3));
+        createBooking(bookerId, itemId, now.minusDays(2), now.minusDays(1));
+        createBooking(bookerId, itemId, now.minusHours(60), now.minusHours(58));
+        long later = createBooking(bookerId, itemId, now.plusDays(3), now.plusDays(4));
+        long sooner = createBooking(bookerId, itemId, now.plusDays(2), now.plusHours(60));
+        long rejected = createBooking(bookerId, itemId, now.plusDays(1), now.plusHours(36));
+        createBooking(bookerId, itemId, now.plusDays(5), now.plusDays(6));
+        bookingService.confirmBooking(ownerId, "true", later);
+        bookingService.confirmBooking(ownerId, "true", sooner);
+        bookingService.confirmBooking(ownerId, "false", rejected);
+        ItemBookingSummary summary = summaryRepository.findById(itemId).orElseThrow();
+
+        ItemBookingSummary stale = new ItemBookingSummary(itemId);
+        stale.setRefreshAt(LocalDateTime.of(1970, 1, 1, 0, 0));
+        summaryRepository.save(stale);
+        summaryStore.refreshStale();
+
+        assertEquals(summary, summaryRepository.findById(itemId).orElseThrow());
+        assertEquals(sooner, summary.getNextBookingId());
+        assertEquals(now.minusDays(1), summary.getLastEnd());
+        assertEquals(now.plusDays(1), summary.getRefreshAt());
+        assertEquals(4, summary.getWaitingCount());
+        assertEquals(2, summary.getApprovedCount());
+        assertEquals(1, summary.getRejectedCount());
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(new UserDto(name, UUID.randomUUID() + "@shareit.ru")).getId();
+    }
+
+    private void addBooking(long itemId, long bookerId, LocalDateTime start) {
+        Booking booking = bookingRepository.save(new Booking(null, start, start.plusHours(1),
+                itemRepository.getReferenceById(itemId), userRepository.getReferenceById(bookerId),
+                Status.WAITING, 0));
+        summaryStore.addBooking(itemId, new BookingShortDto(booking.getId(), bookerId, booking.getStart(),
+                booking.getEnd()));
+    }
+
+    private long createBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingService.createBooking(bookerId, new BookingDto(itemId, start, end)).getId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
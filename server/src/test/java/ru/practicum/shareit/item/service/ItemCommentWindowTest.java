@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExtDto;
+import ru.practicum.shareit.sql.SqlScope;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemCommentWindowTest {
+    @Autowired
+    private ItemCommentWindow itemCommentWindow;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    private long ownerId;
+    private long itemId;
+    private int authors;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = addUser("owner");
+        itemId = itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, null, null)).getId();
+    }
+
+    @Test
+    void addedCommentIsInWindowOnceCommitted() {
+        long authorId = addAuthor("author");
+        addComment(authorId, "First");
+        assertEquals(1, itemService.getItemById(ownerId, itemId).getCommentCount());
+
+        addComment(authorId, "Second");
+
+        ItemExtDto item = itemService.getItemById(ownerId, itemId);
+        assertEquals(2, item.getCommentCount());
+        assertEquals(List.of("Second", "First"), texts(item.getComments()));
+    }
+
+    @Test
+    void windowKeepsNewestCommentsAndCountsAll() {
+        long authorId = addAuthor("author");
+        int total = itemCommentWindow.getSize() + 2;
+        List<String> newestFirst = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            addComment(authorId, "Comment " + i);
+            newestFirst.add(0, "Comment " + i);
+        }
+
+        ItemExtDto item = itemService.getItemById(ownerId, itemId);
+
+        assertEquals(total, item.getCommentCount());
+        assertEquals(newestFirst.subList(0, itemCommentWindow.getSize()), texts(item.getComments()));
+    }
+
+    @Test
+    void authorNamesAreLookedUpOnceAndStayCurrent() {
+        List<Long> authorIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            authorIds.add(addAuthor("author " + i));
+            addComment(authorIds.get(i), "Comment " + i);
+        }
+        userService.updateUser(authorIds.get(0), Map.of("name", "renamed"));
+
+        List<CommentDto> comments;
+        try (SqlScope scope = SqlScope.open()) {
+            comments = itemCommentWindow.mapToCommentDtos(itemCommentWindow.get(itemId).getComments());
+            assertTrue(scope.getStatements() <= 2, "Comment window took " + scope.getStatements() + " statements");
+        }
+        assertEquals(List.of("author 2", "author 1", "renamed"), comments.stream()
+                .map(CommentDto::getAuthorName)
+                .collect(Collectors.toList()));
+    }
+
+    private long addAuthor(String name) {
+        long authorId = addUser(name);
+        LocalDateTime end = LocalDateTime.now().minusDays(++authors);
+        long bookingId = bookingService.createBooking(authorId, new BookingDto(itemId, end.minusHours(1), end))
+                .getId();
+        bookingService.confirmBooking(ownerId, "true", bookingId);
+        return authorId;
+    }
+
+    private void addComment(long authorId, String text) {
+        itemService.addComment(authorId, itemId, new CommentDto(null, text, null, null, null));
+    }
+
+    private List<String> texts(List<CommentDto> comments) {
+        return comments.stream()
+                .map(CommentDto::getText)
+                .collect(Collectors.toList());
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(new UserDto(name, UUID.randomUUID() + "@shareit.ru")).getId();
+    }
+}
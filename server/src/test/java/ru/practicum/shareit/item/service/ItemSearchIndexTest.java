@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemSearchIndexTest {
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    private long ownerId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.addUser(new UserDto("owner", UUID.randomUUID() + "@shareit.ru")).getId();
+        token = "q" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void pagesAreOrderedById() {
+        long first = addItem("Drill " + token, "Cordless drill");
+        long second = addItem("Hammer", "Goes well with " + token.toUpperCase());
+        long third = addItem("Saw", token);
+
+        assertEquals(List.of(first, second), ids(itemService.findItems(token, 0, 2)));
+        assertEquals(List.of(third), ids(itemService.findItems(token, 2, 2)));
+    }
+
+    @Test
+    void documentWithAllGramsButNotQueryIsNotFound() {
+        String query = token + "xyz";
+        addItem("Parts", token.substring(3) + "xyz " + token);
+
+        assertTrue(itemService.findItems(query, 0, 10).isEmpty());
+    }
+
+    @Test
+    void unavailableAndUpdatedItemsLeaveResults() {
+        long itemId = addItem("Drill " + token, "Cordless drill");
+        itemService.updateItem(ownerId, Map.of("available", false), itemId);
+        assertTrue(itemService.findItems(token, 0, 10).isEmpty());
+
+        itemService.updateItem(ownerId, Map.of("available", true, "name", "Drill"), itemId);
+        assertTrue(itemService.findItems(token, 0, 10).isEmpty());
+
+        itemService.updateItem(ownerId, Map.of("description", "Cordless " + token), itemId);
+        assertEquals(List.of(itemId), ids(itemService.findItems(token, 0, 10)));
+    }
+
+    @Test
+    void shortQueriesMatchDatabase() {
+        addItem("Drill " + token, "Cordless drill");
+        itemSearchIndex.rebuild();
+
+        for (String query : List.of("dr", "ill", "ll", "s ")) {
+            for (int from : List.of(0, 3, 30)) {
+                List<Long> expected = itemRepository.findAllAvailableContaining(query, PageRequest.of(from / 3, 3))
+                        .stream()
+                        .map(Item::getId)
+                        .collect(Collectors.toList());
+                assertEquals(expected, ids(itemService.findItems(query, from, 3)), query + " from " + from);
+            }
+        }
+    }
+
+    @Test
+    void singleCharacterIsLeftToDatabase() {
+        addItem("Drill " + token, "100% cordless");
+
+        assertTrue(itemSearchIndex.search("%", 0, 10).isEmpty());
+        List<ItemDto> items = itemService.findItems("%", 0, 100);
+        assertFalse(items.isEmpty());
+        assertTrue(items.stream().allMatch(item -> (item.getName() + item.getDescription()).contains("%")));
+    }
+
+    private long addItem(String name, String description) {
+        return itemService.addItem(ownerId, new ItemDto(0, name, description, true, null, null)).getId();
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExtDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.sql.SqlScope;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemServiceImplTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void ownerItemPageCostsSameStatementsForAnyPageSize() {
+        long smallOwnerId = addOwnerWithBookedItems(2);
+        long largeOwnerId = addOwnerWithBookedItems(10);
+
+        int smallPageStatements;
+        try (SqlScope scope = SqlScope.open()) {
+            List<ItemExtDto> items = itemService.getAllUserItems(smallOwnerId, 0, 20);
+            smallPageStatements = scope.getStatements();
+            assertEquals(2, items.size());
+        }
+        try (SqlScope scope = SqlScope.open()) {
+            List<ItemExtDto> items = itemService.getAllUserItems(largeOwnerId, 0, 20);
+            assertEquals(10, items.size());
+            items.forEach(item -> {
+                assertNotNull(item.getLastBooking());
+                assertNotNull(item.getNextBooking());
+                assertEquals(1, item.getComments().size());
+            });
+            assertEquals(smallPageStatements, scope.getStatements());
+        }
+        assertTrue(smallPageStatements <= 5, "Owner item page took " + smallPageStatements + " statements");
+    }
+
+    private long addOwnerWithBookedItems(int count) {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            long itemId = itemService.addItem(ownerId, new ItemDto(0, "Item " + i, "Description of item " + i,
+                    true, null, null)).getId();
+            long lastId = bookingService.createBooking(bookerId,
+                    new BookingDto(itemId, now.minusDays(2), now.minusDays(1))).getId();
+            bookingService.confirmBooking(ownerId, "true", lastId);
+            long nextId = bookingService.createBooking(bookerId,
+                    new BookingDto(itemId, now.plusDays(1), now.plusDays(2))).getId();
+            bookingService.confirmBooking(ownerId, "true", nextId);
+            itemService.addComment(bookerId, itemId, new CommentDto(null, "Works fine", null, null, null));
+        }
+        return ownerId;
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(new UserDto(name, UUID.randomUUID() + "@shareit.ru")).getId();
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestControllerTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+    /**
+     * An {@link ru.practicum.shareit.util.EntityTag}, rather than the content hash of the ETag filter.
+     */
+    private static final Pattern ENTITY_TAG = Pattern.compile("\"[0-9a-f]{1,16}\"");
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private RequestService requestService;
+    private long requesterId;
+    private long ownerId;
+    private long requestId;
+
+    @BeforeEach
+    void setUp() {
+        requesterId = addUser("requester");
+        ownerId = addUser("owner");
+        requestId = requestService.createRequest(requesterId, new RequestDto(null, "Need a drill", null)).getId();
+    }
+
+    @Test
+    void unchangedRequestsAreNotModified() throws Exception {
+        assertNotModified(get("/requests/{requestId}", requestId).header(USER_ID, ownerId));
+        assertNotModified(get("/requests").header(USER_ID, requesterId));
+        assertNotModified(get("/requests/all").header(USER_ID, ownerId));
+    }
+
+    @Test
+    void itemChangesChangeTag() throws Exception {
+        String empty = etag(get("/requests/{requestId}", requestId).header(USER_ID, ownerId));
+        long itemId = itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, requestId, null))
+                .getId();
+        String withItem = etag(get("/requests/{requestId}", requestId).header(USER_ID, ownerId));
+        itemService.updateItem(ownerId, Map.of("available", false), itemId);
+        String unavailable = etag(get("/requests/{requestId}", requestId).header(USER_ID, ownerId));
+
+        assertNotEquals(empty, withItem);
+        assertNotEquals(withItem, unavailable);
+    }
+
+    @Test
+    void renameToCollidingHashCodeChangesTag() throws Exception {
+        long itemId = itemService.addItem(ownerId, new ItemDto(0, "Aa", "Cordless drill", true, requestId, null))
+                .getId();
+        String before = etag(get("/requests/{requestId}", requestId).header(USER_ID, ownerId));
+        itemService.updateItem(ownerId, Map.of("name", "BB"), itemId);
+
+        mockMvc.perform(get("/requests/{requestId}", requestId).header(USER_ID, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk());
+    }
+
+    private void assertNotModified(MockHttpServletRequestBuilder request) throws Exception {
+        String etag = etag(request);
+        mockMvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etag(MockHttpServletRequestBuilder request) throws Exception {
+        String etag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertTrue(ENTITY_TAG.matcher(etag).matches(), "Not an entity tag: " + etag);
+        return etag;
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(new UserDto(name, UUID.randomUUID() + "@shareit.ru")).getId();
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestExtDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The feed holds the five newest requests here, so the later pages are read from the database.
+ */
+@SpringBootTest(properties = "shareit.requests.feed.capacity=5")
+class RequestFeedTest {
+    @Autowired
+    private RequestFeed requestFeed;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    private long requesterId;
+    private long viewerId;
+    private List<Long> requestIds;
+
+    @BeforeEach
+    void setUp() {
+        requesterId = addUser("requester");
+        viewerId = addUser("viewer");
+        requestIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            requestIds.add(0, requestService.createRequest(requesterId, new RequestDto(null, "Request " + i, null))
+                    .getId());
+        }
+    }
+
+    @Test
+    void pagesAreNewestFirst() {
+        assertEquals(requestIds.subList(0, 2), ids(requestService.getAllOtherUserRequests(viewerId, 0, 2, null)));
+        assertEquals(requestIds.subList(2, 4), ids(requestService.getAllOtherUserRequests(viewerId, 2, 2, null)));
+    }
+
+    @Test
+    void pageAfterCursorStartsAfterIt() {
+        RequestExtDto last = requestService.getAllOtherUserRequests(viewerId, 0, 2, null).get(1);
+
+        List<RequestExtDto> page = requestService.getAllOtherUserRequests(viewerId, 0, 2,
+                last.getCreated() + "," + last.getId());
+
+        assertEquals(requestIds.subList(2, 4), ids(page));
+    }
+
+    @Test
+    void ownRequestsAreSkipped() {
+        assertTrue(requestService.getAllOtherUserRequests(requesterId, 0, 7, null).stream()
+                .noneMatch(request -> requestIds.contains(request.getId())));
+    }
+
+    @Test
+    void pagePastFeedIsReadFromDatabase() {
+        assertTrue(requestFeed.findPage(viewerId, null, 5, 2).isEmpty());
+
+        assertEquals(requestIds.subList(5, 7), ids(requestService.getAllOtherUserRequests(viewerId, 5, 2, null)));
+    }
+
+    @Test
+    void itemsAreAddedAndUpdatedInFeed() {
+        long ownerId = addUser("owner");
+        long requestId = requestIds.get(0);
+        long itemId = itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, requestId, null))
+                .getId();
+        itemService.updateItem(ownerId, Map.of("name", "Hammer drill"), itemId);
+
+        List<ItemDto> items = requestService.getAllOtherUserRequests(viewerId, 0, 1, null).get(0).getItems();
+
+        assertEquals(1, items.size());
+        assertEquals("Hammer drill", items.get(0).getName());
+    }
+
+    @Test
+    void deletedUserRequestsAndItemsLeaveFeed() {
+        long ownerId = addUser("owner");
+        long ownerRequestId = requestService.createRequest(ownerId, new RequestDto(null, "Need a saw", null)).getId();
+        itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, requestIds.get(0), null));
+
+        userService.deleteUser(ownerId);
+
+        List<RequestExtDto> page = requestService.getAllOtherUserRequests(viewerId, 0, 2, null);
+        assertEquals(requestIds.subList(0, 2), ids(page));
+        assertTrue(page.get(0).getItems().isEmpty());
+        assertTrue(ids(page).stream().noneMatch(id -> id == ownerRequestId));
+    }
+
+    private List<Long> ids(List<RequestExtDto> requests) {
+        return requests.stream()
+                .map(RequestExtDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(new UserDto(name, UUID.randomUUID() + "@shareit.ru")).getId();
+    }
+}
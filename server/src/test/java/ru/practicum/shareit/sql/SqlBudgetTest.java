@@ -0,0 +1,110 @@
+package ru.practicum.shareit.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets per endpoint, read from the X-Sql-Stats header the test profile turns on.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlBudgetTest {
+    private static final Pattern STATEMENTS = Pattern.compile("statements=(\\d+);");
+    private static final String USER_ID = "X-Sharer-User-Id";
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private RequestService requestService;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long bookingId;
+    private long requestId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.addUser(new UserDto("owner", UUID.randomUUID() + "@shareit.ru")).getId();
+        bookerId = userService.addUser(new UserDto("booker", UUID.randomUUID() + "@shareit.ru")).getId();
+        requestId = requestService.createRequest(bookerId, new RequestDto(null, "Need a drill", null)).getId();
+        itemId = itemService.addItem(ownerId, new ItemDto(0, "Drill", "Cordless drill", true, requestId, null))
+                .getId();
+        LocalDateTime now = LocalDateTime.now();
+        bookingId = bookingService.createBooking(bookerId, new BookingDto(itemId, now.minusDays(2),
+                now.minusDays(1))).getId();
+        bookingService.confirmBooking(ownerId, "true", bookingId);
+        itemService.addComment(bookerId, itemId, new CommentDto(null, "Works fine", null, null, null));
+    }
+
+    @Test
+    void itemEndpointsStayWithinBudget() throws Exception {
+        assertBudget(1, get("/items/{itemId}", itemId).header(USER_ID, ownerId));
+        assertBudget(1, get("/items").header(USER_ID, ownerId));
+        assertBudget(1, get("/items/{itemId}/comments", itemId));
+        assertBudget(0, get("/items/search").param("text", "drill"));
+    }
+
+    @Test
+    void bookingEndpointsStayWithinBudget() throws Exception {
+        assertBudget(1, get("/bookings/{bookingId}", bookingId).header(USER_ID, bookerId));
+        assertBudget(1, get("/bookings").header(USER_ID, bookerId));
+        assertBudget(1, get("/bookings/owner").header(USER_ID, ownerId));
+    }
+
+    @Test
+    void requestEndpointsStayWithinBudget() throws Exception {
+        assertBudget(2, get("/requests").header(USER_ID, bookerId));
+        assertBudget(0, get("/requests/all").header(USER_ID, ownerId));
+        assertBudget(2, get("/requests/{requestId}", requestId).header(USER_ID, ownerId));
+    }
+
+    @Test
+    void userEndpointsStayWithinBudget() throws Exception {
+        assertBudget(0, get("/users/{userId}", ownerId));
+        assertBudget(1, get("/users"));
+    }
+
+    /**
+     * Budgets are for a warm node: the request is sent twice and only the second one is measured.
+     */
+    private void assertBudget(int budget, RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+        MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        String stats = result.getResponse().getHeader(SqlStatsHeaderAdvice.HEADER);
+        assertNotNull(stats, "No " + SqlStatsHeaderAdvice.HEADER + " header");
+        Matcher matcher = STATEMENTS.matcher(stats);
+        assertTrue(matcher.find(), stats);
+        int statements = Integer.parseInt(matcher.group(1));
+        assertTrue(statements <= budget, result.getRequest().getRequestURI() + " took " + statements
+                + " statements, the budget is " + budget);
+    }
+}
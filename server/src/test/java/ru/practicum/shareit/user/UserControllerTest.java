@@ -0,0 +1,78 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.user.dto.UserDto;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void emailTakenLocallyIsConflict() throws Exception {
+        String email = UUID.randomUUID() + "@shareit.ru";
+        createUser(email).andExpect(status().isOk());
+
+        createUser(email).andExpect(status().isConflict());
+    }
+
+    @Test
+    void emailTakenThroughAnotherNodeIsConflict() throws Exception {
+        String email = addUserBehindFilter();
+
+        createUser(email)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.name").value("ObjectConflictException"));
+    }
+
+    @Test
+    void updateToEmailTakenThroughAnotherNodeIsConflict() throws Exception {
+        String email = addUserBehindFilter();
+        String userJson = createUser(UUID.randomUUID() + "@shareit.ru")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long userId = objectMapper.readTree(userJson).get("id").asLong();
+
+        mockMvc.perform(patch("/users/{userId}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"" + email + "\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    /**
+     * Inserts a user the way another node would, unseen by this node's email filter. The id is negative so it
+     * can't meet one handed out by the sequence.
+     */
+    private String addUserBehindFilter() {
+        String email = UUID.randomUUID() + "@shareit.ru";
+        jdbcTemplate.update("insert into users (id, name, email) values (?, ?, ?)",
+                -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE), "other", email);
+        return email;
+    }
+
+    private ResultActions createUser(String email) throws Exception {
+        return mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UserDto("user", email))));
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class CacheRegionMetricsTest {
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void cachedReadsAreCounted() {
+        long userId = userService.addUser(new UserDto("user", UUID.randomUUID() + "@shareit.ru")).getId();
+        double hits = userHits();
+
+        userService.findUserById(userId);
+        userService.findUserById(userId);
+
+        assertEquals(hits + 2, userHits());
+    }
+
+    private double userHits() {
+        return registry.get("cache.gets")
+                .tags("cache", "users", "result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class EntityTagTest {
+    @Test
+    void stringsWithSameHashCodeGetDifferentTags() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(new EntityTag().with(1).with("Aa").build(), new EntityTag().with(1).with("BB").build());
+    }
+
+    @Test
+    void characterMovedBetweenStringsChangesTag() {
+        assertNotEquals(new EntityTag().with("ab").with("c").build(), new EntityTag().with("a").with("bc").build());
+        assertNotEquals(new EntityTag().with((String) null).build(), new EntityTag().with("").build());
+    }
+
+    @Test
+    void sameValuesGetSameTag() {
+        assertEquals(new EntityTag().with(7).with("Drill").build(), new EntityTag().with(7).with("Drill").build());
+    }
+}